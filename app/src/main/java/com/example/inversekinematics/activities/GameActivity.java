@@ -2,19 +2,29 @@ package com.example.inversekinematics.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
+import android.util.DisplayMetrics;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.inversekinematics.R;
+import com.example.inversekinematics.engine.GameConfig;
 import com.example.inversekinematics.engine.GameEngine;
+import com.example.inversekinematics.engine.GameLoop;
+import com.example.inversekinematics.engine.InputRecorder;
 import com.example.inversekinematics.enums.GameState;
-import com.example.inversekinematics.views.MainView;
+import com.example.inversekinematics.views.AndroidMemoryProbe;
+import com.example.inversekinematics.views.GameView;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
- * Main game loop activity, handles user input
+ * Main game activity, starts the game loop and handles user input
  * <p>
  * Will end after a set period of time and display the GameOverPopUp
  *
@@ -22,19 +32,54 @@ import com.example.inversekinematics.views.MainView;
  * @version %I%, %G%
  */
 public class GameActivity extends AppCompatActivity implements View.OnTouchListener {
-    private final Handler handler = new Handler();
     /**
-     * Frame rate
+     * Intent extra overriding the renderer choice, true for the SurfaceView renderer
+     */
+    public static final String EXTRA_SURFACE_RENDERER = "surface_renderer";
+    /**
+     * Intent extra overriding whether the performance overlay is shown
+     */
+    public static final String EXTRA_PERFORMANCE_HUD = "performance_hud";
+    /**
+     * Intent extra with the size of the world in screens along each axis, 1 by default
+     */
+    public static final String EXTRA_WORLD_SCREENS = "world_screens";
+    /**
+     * Intent extra overriding whether the player input is recorded
+     */
+    public static final String EXTRA_RECORD_INPUT = "record_input";
+    /**
+     * Directory of the app storage holding the recorded games
      */
-    private final int UPDATE_DELAY = 50;
+    private static final String RECORDINGS_DIRECTORY = "recordings";
+    /**
+     * Tag of the log messages
+     */
+    private static final String TAG = "GameActivity";
     /**
      * Reference to the game engine
      */
     private GameEngine gameEngine;
+    /**
+     * Simulation thread driving the game engine
+     */
+    private GameLoop gameLoop;
     /**
      * Reference to the main view
      */
-    private MainView view;
+    private View view;
+    /**
+     * Allocation counter used while the performance overlay is shown, null otherwise
+     */
+    private AndroidMemoryProbe memoryProbe;
+    /**
+     * Recorder of the player input, null if the game is not recorded or already saved
+     */
+    private InputRecorder recorder;
+    /**
+     * Seed of the game, names the recording
+     */
+    private long seed;
 
     /**
      * Start the game main activity and initialize the game engine and touch listener
@@ -44,39 +89,80 @@ public class GameActivity extends AppCompatActivity implements View.OnTouchListe
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
+
+        DisplayMetrics dm = new DisplayMetrics();
+        getWindowManager().getDefaultDisplay().getMetrics(dm);
+
+        // Choose between the UI thread and the render thread view
+        boolean surface = getIntent().getBooleanExtra(EXTRA_SURFACE_RENDERER,
+                getResources().getBoolean(R.bool.use_surface_renderer));
+        setContentView(surface ? R.layout.activity_main_surface : R.layout.activity_main);
         view = findViewById(R.id.MainView);
 
-        gameEngine = new GameEngine();
-        gameEngine.init();
+        // A world of several screens is scrolled by a camera following the player
+        int screens = Math.max(1, getIntent().getIntExtra(EXTRA_WORLD_SCREENS, 1));
+        GameConfig config = new GameConfig()
+                .setWorldSize(dm.widthPixels * screens, dm.heightPixels * screens);
+
+        gameEngine = new GameEngine(dm.widthPixels, dm.heightPixels);
+
+        // A recorded session can be played again offline, e.g. with the batch simulation's --replay
+        if (getIntent().getBooleanExtra(EXTRA_RECORD_INPUT, getResources().getBoolean(R.bool.record_input))) {
+            recorder = new InputRecorder();
+            gameEngine.setRecorder(recorder);
+        }
+        seed = config.getSeed();
+        gameEngine.init(config);
+
+        // Allocation counting is only worth its cost while somebody watches the numbers
+        boolean hud = getIntent().getBooleanExtra(EXTRA_PERFORMANCE_HUD,
+                getResources().getBoolean(R.bool.show_performance_hud));
+        if (hud) {
+            memoryProbe = new AndroidMemoryProbe();
+            gameEngine.getProfiler().setMemoryProbe(memoryProbe);
+        }
+        ((GameView) view).setHudEnabled(hud);
 
         view.setOnTouchListener(this);
 
-        startUpdateHandler();
+        startGameLoop();
+    }
+
+    /**
+     * Stop the simulation and its worker threads when the activity is destroyed
+     */
+    @Override
+    protected void onDestroy() {
+        gameLoop.stop();
+        // A game left before its end is recorded up to the last simulated tick
+        saveRecording();
+        gameEngine.shutdown();
+        if (memoryProbe != null) {
+            memoryProbe.release();
+        }
+        super.onDestroy();
     }
 
     /**
-     * Main game loop, updates the game engine while the game is running and starts game over activity
-     * when the game is over
+     * Main game loop, runs the game engine on its own thread while the game is running and starts
+     * game over activity when the game is over
      */
-    private void startUpdateHandler() {
-        handler.postDelayed(new Runnable() {
+    private void startGameLoop() {
+        gameLoop = new GameLoop(gameEngine);
+        gameLoop.setListener(new GameLoop.Listener() {
             @Override
-            public void run() {
-                gameEngine.update();
-
-                if (GameEngine.getCurrentState() == GameState.Running) {
-                    handler.postDelayed(this, UPDATE_DELAY);
-                } else if (GameEngine.getCurrentState() == GameState.Lost) {
-                    onGameEnded();
-                } else if (GameEngine.getCurrentState() == GameState.TimedOut) {
-                    onGameEnded();
-                }
-
-                view.setView(gameEngine.getPlayerSnake(), gameEngine.getEnemySnakes(), gameEngine.getFood());
-                view.invalidate();
+            public void onGameEnded(final GameState state, final int score) {
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        GameActivity.this.onGameEnded(state, score);
+                    }
+                });
             }
-        }, UPDATE_DELAY);
+        });
+
+        ((GameView) view).setGameLoop(gameLoop);
+        gameLoop.start();
     }
 
     /**
@@ -86,10 +172,10 @@ public class GameActivity extends AppCompatActivity implements View.OnTouchListe
     public boolean onTouch(View view, MotionEvent e) {
         switch (e.getAction()) {
             case MotionEvent.ACTION_DOWN:
-                gameEngine.calculateFollowPoint(e.getX(), e.getY());
+                gameLoop.touch(e.getX(), e.getY());
                 break;
             case MotionEvent.ACTION_MOVE:
-                gameEngine.calculateFollowPoint(e.getX(), e.getY());
+                gameLoop.touch(e.getX(), e.getY());
                 break;
             case MotionEvent.ACTION_UP:
                 break;
@@ -101,8 +187,47 @@ public class GameActivity extends AppCompatActivity implements View.OnTouchListe
 
     /**
      * Start the GameOverPopUp activity after the game is over and end the game
+     *
+     * @param state final game state
+     * @param score final player score
      */
-    private void onGameEnded() {
-        startActivity(new Intent(GameActivity.this, GameOverPopUp.class));
+    private void onGameEnded(GameState state, int score) {
+        saveRecording();
+
+        Intent intent = new Intent(GameActivity.this, GameOverPopUp.class);
+        intent.putExtra(GameOverPopUp.EXTRA_STATE, state.name());
+        intent.putExtra(GameOverPopUp.EXTRA_SCORE, score);
+        startActivity(intent);
+    }
+
+    /**
+     * Write the recorded input to the app storage, once per game
+     * <p>
+     * Must only be called while the game loop is not simulating
+     */
+    private void saveRecording() {
+        if (recorder == null) return;
+
+        if (!recorder.isFinished()) {
+            recorder.finish(gameEngine);
+        }
+
+        File directory = getExternalFilesDir(RECORDINGS_DIRECTORY);
+        if (directory == null) {
+            directory = new File(getFilesDir(), RECORDINGS_DIRECTORY);
+        }
+        File file = new File(directory, "game-" + seed + ".rec");
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            try (OutputStream stream = new FileOutputStream(file)) {
+                recorder.writeTo(stream);
+            }
+            Log.i(TAG, "Game recorded to " + file);
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot write the recorded game", e);
+        }
+        recorder = null;
     }
 }
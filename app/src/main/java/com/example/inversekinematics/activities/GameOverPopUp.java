@@ -12,7 +12,6 @@ import android.widget.FrameLayout;
 import android.widget.TextView;
 
 import com.example.inversekinematics.R;
-import com.example.inversekinematics.engine.GameEngine;
 import com.example.inversekinematics.enums.GameState;
 
 /**
@@ -22,6 +21,14 @@ import com.example.inversekinematics.enums.GameState;
  * @version %I%, %G%
  */
 public class GameOverPopUp extends Activity {
+    /**
+     * Intent extra with the name of the final game state
+     */
+    public static final String EXTRA_STATE = "state";
+    /**
+     * Intent extra with the final player score
+     */
+    public static final String EXTRA_SCORE = "score";
 
     /**
      * Set the game over message and display player's score and menu and restart buttons
@@ -39,11 +46,16 @@ public class GameOverPopUp extends Activity {
                         getResources().getDisplayMetrics())
         );
 
+        // The finished game is passed in the intent
+        String stateName = getIntent().getStringExtra(EXTRA_STATE);
+        GameState state = stateName != null ? GameState.valueOf(stateName) : null;
+        int finalScore = getIntent().getIntExtra(EXTRA_SCORE, 0);
+
         // Set game over message
-        if (GameEngine.getCurrentState() == GameState.TimedOut) {
+        if (state == GameState.TimedOut) {
             TextView gameOverText = findViewById(R.id.end_message);
             gameOverText.setText(R.string.game_ended);
-        } else if (GameEngine.getCurrentState() == GameState.Lost) {
+        } else if (state == GameState.Lost) {
             TextView gameOverText = findViewById(R.id.end_message);
             gameOverText.setText(R.string.game_lost);
         }
@@ -53,7 +65,7 @@ public class GameOverPopUp extends Activity {
 
         // Display score
         TextView score = new TextView(layout.getContext());
-        score.setText(String.valueOf(GameEngine.getScore()));
+        score.setText(String.valueOf(finalScore));
         score.setTextSize(80);
         score.setTextAlignment(View.TEXT_ALIGNMENT_CENTER);
         score.setTextColor(Color.BLACK);
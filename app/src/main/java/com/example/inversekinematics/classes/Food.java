@@ -13,6 +13,14 @@ public class Food extends Vector {
      * After being set effectively final
      */
     private Snake consumer;
+    /**
+     * True once the food has been eaten by some snake
+     */
+    private boolean eaten;
+    /**
+     * Position of the food in the food store, -1 if it is not stored
+     */
+    private int slot = -1;
 
     /**
      * Construct new Food at position (0, 0)
@@ -20,8 +28,7 @@ public class Food extends Vector {
      * Constructor obsolete, only for backwards compatibility with Vector class
      */
     public Food() {
-        this.setX(0);
-        this.setY(0);
+        this.set(0, 0);
     }
 
     /**
@@ -31,8 +38,7 @@ public class Food extends Vector {
      * @param y coordinate
      */
     public Food(double x, double y) {
-        this.setX(x);
-        this.setY(y);
+        this.set(x, y);
     }
 
     /**
@@ -41,8 +47,21 @@ public class Food extends Vector {
      * @param src position Vector
      */
     public Food(Vector src) {
-        this.setX(src.getX());
-        this.setY(src.getY());
+        this.set(src);
+    }
+
+    /**
+     * Reuse released food as new food at position (x, y)
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @return this Food
+     */
+    public Food reset(double x, double y) {
+        this.set(x, y);
+        consumer = null;
+        eaten = false;
+        return this;
     }
 
     /**
@@ -76,4 +95,38 @@ public class Food extends Vector {
         this.consumer = consumer;
     }
 
+    /**
+     * Get the position of the food in the food store
+     *
+     * @return slot index or -1 if the food is not stored
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Set the position of the food in the food store, only used by the store itself
+     *
+     * @param slot slot index or -1 if the food is not stored
+     */
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * Check whether the food has already been eaten
+     *
+     * @return True if some snake has eaten this food
+     */
+    public boolean isEaten() {
+        return eaten;
+    }
+
+    /**
+     * Mark the food as eaten, so that snakes heading to it can look for another one
+     */
+    public void consume() {
+        this.eaten = true;
+    }
+
 }
@@ -0,0 +1,153 @@
+package com.example.inversekinematics.classes;
+
+/**
+ * Recent path of a snake's head, sampled at a fixed distance between points
+ * <p>
+ * Points are kept in a ring buffer indexed from the newest (0) to the oldest, once the buffer is
+ * full the oldest point is overwritten. A head that moves further than the spacing in one step
+ * has the points in between filled in along a straight line, so the points are always evenly
+ * spaced and a body of segments as long as the spacing can be laid along them.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class HeadPath {
+    /**
+     * x coordinates of the points
+     */
+    private double[] xs;
+    /**
+     * y coordinates of the points
+     */
+    private double[] ys;
+    /**
+     * Position of the newest point in the ring buffer
+     */
+    private int last;
+    /**
+     * Number of points
+     */
+    private int size;
+
+    /**
+     * Create an empty path
+     *
+     * @param capacity number of kept points
+     */
+    public HeadPath(int capacity) {
+        xs = new double[Math.max(1, capacity)];
+        ys = new double[Math.max(1, capacity)];
+    }
+
+    /**
+     * Remove all points
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Keep at least given number of points, keeping the recorded ones
+     *
+     * @param capacity number of kept points
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= xs.length) return;
+
+        double[] grownX = new double[capacity];
+        double[] grownY = new double[capacity];
+        // Unroll the ring buffer, newest point last
+        for (int i = 0; i < size; i++) {
+            grownX[size - 1 - i] = getX(i);
+            grownY[size - 1 - i] = getY(i);
+        }
+        xs = grownX;
+        ys = grownY;
+        last = size - 1;
+    }
+
+    /**
+     * Record a new position of the head
+     * <p>
+     * The first position is always recorded, later ones only once the head is at least one
+     * spacing away from the newest point
+     *
+     * @param x       x coordinate of the head
+     * @param y       y coordinate of the head
+     * @param spacing distance between two points
+     */
+    public void record(double x, double y, double spacing) {
+        if (size == 0) {
+            add(x, y);
+            return;
+        }
+
+        double dx = x - xs[last];
+        double dy = y - ys[last];
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance < spacing) return;
+
+        // Fill in evenly spaced points up to the head
+        int steps = (int) (distance / spacing);
+        double stepX = dx / distance * spacing;
+        double stepY = dy / distance * spacing;
+        double startX = xs[last], startY = ys[last];
+        // Points that would be overwritten right away are skipped
+        for (int i = Math.max(1, steps - xs.length + 1); i <= steps; i++) {
+            add(startX + stepX * i, startY + stepY * i);
+        }
+    }
+
+    /**
+     * Get the number of points
+     *
+     * @return number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the x coordinate of a point
+     *
+     * @param i point index, 0 being the newest
+     * @return x coordinate
+     */
+    public double getX(int i) {
+        return xs[index(i)];
+    }
+
+    /**
+     * Get the y coordinate of a point
+     *
+     * @param i point index, 0 being the newest
+     * @return y coordinate
+     */
+    public double getY(int i) {
+        return ys[index(i)];
+    }
+
+    /**
+     * Append a point as it is, overwriting the oldest one if the buffer is full
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    public void add(double x, double y) {
+        last = (last + 1) % xs.length;
+        xs[last] = x;
+        ys[last] = y;
+        size = Math.min(size + 1, xs.length);
+    }
+
+    /**
+     * Convert point index to a position in the ring buffer
+     *
+     * @param i point index, 0 being the newest
+     * @return position in the ring buffer
+     */
+    private int index(int i) {
+        int k = last - i;
+        return k < 0 ? k + xs.length : k;
+    }
+}
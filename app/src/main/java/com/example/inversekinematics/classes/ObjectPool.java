@@ -0,0 +1,85 @@
+package com.example.inversekinematics.classes;
+
+/**
+ * Free list of game objects that are released when they leave the game and reused for the next
+ * ones instead of being garbage collected
+ * <p>
+ * The pool does not reset released objects, callers reinitialize them after
+ * {@link #acquire()}. A released object must no longer be referenced by the game. The pool is
+ * not thread-safe.
+ *
+ * @param <T> type of pooled objects
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public abstract class ObjectPool<T> {
+    /**
+     * Maximum number of kept objects, further released objects are left to the garbage collector
+     */
+    private final int capacity;
+    /**
+     * Released objects ready for reuse
+     */
+    private Object[] free = new Object[16];
+    /**
+     * Number of objects ready for reuse
+     */
+    private int size;
+
+    /**
+     * Create an empty pool
+     *
+     * @param capacity maximum number of kept objects
+     */
+    protected ObjectPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Create a new object when the pool is empty
+     *
+     * @return new object
+     */
+    protected abstract T create();
+
+    /**
+     * Take a released object or create a new one if there is none
+     *
+     * @return object to be reinitialized by the caller
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (size == 0) {
+            return create();
+        }
+
+        T object = (T) free[--size];
+        free[size] = null;
+        return object;
+    }
+
+    /**
+     * Return an object that has left the game
+     *
+     * @param object released object
+     */
+    public void release(T object) {
+        if (size == capacity) return;
+
+        if (size == free.length) {
+            Object[] grown = new Object[Math.min(capacity, free.length * 2)];
+            System.arraycopy(free, 0, grown, 0, size);
+            free = grown;
+        }
+        free[size++] = object;
+    }
+
+    /**
+     * Get the number of objects ready for reuse
+     *
+     * @return number of pooled objects
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -1,12 +1,12 @@
 package com.example.inversekinematics.classes;
 
+import com.example.inversekinematics.enums.BodyModel;
+import com.example.inversekinematics.enums.DetailLevel;
 import com.example.inversekinematics.enums.SnakeState;
 import com.example.inversekinematics.enums.SnakeType;
 
-import java.util.List;
-
 /**
- * Snake body representation as list of Segments with basic functionality such as extending
+ * Snake body representation as a chain of Segments with basic functionality such as extending
  * and enlarging
  *
  * @author Pavel Mikulas
@@ -16,11 +16,11 @@ public class Snake {
     /**
      * Type of the snake
      */
-    private final SnakeType type;
+    private SnakeType type;
     /**
      * Segments of snake body
      */
-    private List<Segment> parts;
+    private final SnakeBody body;
     /**
      * Current state of the snake (Alive, Dead)
      */
@@ -33,17 +33,65 @@ public class Snake {
      * Current snake score
      */
     private int score = 1;
+    /**
+     * Food the snake is heading to, null if it has not planned yet
+     */
+    private Food target;
+    /**
+     * True if the snake decided to attack the player instead of going for its target food
+     */
+    private boolean attacking;
+    /**
+     * Tick of the next scheduled target re-planning
+     */
+    private long nextPlanTick;
+    /**
+     * Way the body follows the head
+     */
+    private BodyModel bodyModel = BodyModel.Chain;
+    /**
+     * Fidelity the snake was last moved with
+     */
+    private DetailLevel detail = DetailLevel.Full;
+    /**
+     * Path of the head recorded while only the head moves
+     */
+    private final HeadPath path = new HeadPath(32);
 
     /**
-     * Constructor for creating a new snake from list of Segments and making it alive
+     * Constructor for creating a new snake from a body and making it alive
+     *
+     * @param body Segments of the snake body
+     * @param type Type of Snake (Aggressive, Passive, Hybrid)
+     */
+    public Snake(SnakeBody body, SnakeType type) {
+        this.body = body;
+        this.type = type;
+        state = SnakeState.ALIVE;
+    }
+
+    /**
+     * Bring a released snake back to life as a new snake with a straight body
      *
-     * @param parts List of Segments
      * @param type  Type of Snake (Aggressive, Passive, Hybrid)
+     * @param x     x coordinate of the tail
+     * @param y     y coordinate of the tail
+     * @param count number of Segments
+     * @return this Snake
      */
-    public Snake(List<Segment> parts, SnakeType type) {
-        this.parts = parts;
+    public Snake reset(SnakeType type, double x, double y, int count) {
+        body.reset(x, y, count);
         this.type = type;
         state = SnakeState.ALIVE;
+        bodySize = 16;
+        score = 1;
+        target = null;
+        attacking = false;
+        nextPlanTick = 0;
+        bodyModel = BodyModel.Chain;
+        detail = DetailLevel.Full;
+        path.clear();
+        return this;
     }
 
     /**
@@ -65,12 +113,21 @@ public class Snake {
     }
 
     /**
-     * Get the head Segment from snakes body
+     * Get the x coordinate of the head segment center of the {@link SnakeBody}
+     *
+     * @return x coordinate of the head
+     */
+    public double getHeadX() {
+        return body.getCenterX(body.size() - 1);
+    }
+
+    /**
+     * Get the y coordinate of the head segment center of the {@link SnakeBody}
      *
-     * @return Head of the Snake
+     * @return y coordinate of the head
      */
-    public Segment getHead() {
-        return parts.get(parts.size() - 1);
+    public double getHeadY() {
+        return body.getCenterY(body.size() - 1);
     }
 
     /**
@@ -85,35 +142,158 @@ public class Snake {
     /**
      * Get the body of the snake
      *
-     * @return List of snake body segments
+     * @return snake body segments
      */
-    public List<Segment> getSnake() {
-        return parts;
+    public SnakeBody getBody() {
+        return body;
     }
 
     /**
-     * Check for collision of snake with food and consume food if collision happens
+     * Get the food the snake is heading to
      *
-     * @param food List of Food on game screen
-     * @return True if snake has consumed food
+     * @return target Food or null if none was chosen yet
      */
-    public boolean eat(List<Food> food) {
-        Vector toRemove = null;
+    public Food getTarget() {
+        return target;
+    }
 
-        // Check for collision with food
-        for (Vector apple : food) {
-            if (Vector.dist(apple, getHead().getCenter()) <= bodySize) {
-                toRemove = apple;
-            }
-        }
+    /**
+     * Set the food the snake is heading to
+     *
+     * @param target target Food
+     * @return this Snake
+     */
+    public Snake setTarget(Food target) {
+        this.target = target;
+        return this;
+    }
+
+    /**
+     * Check whether the snake is attacking the player
+     *
+     * @return True if the snake follows the player's head instead of its target food
+     */
+    public boolean isAttacking() {
+        return attacking;
+    }
 
-        if (toRemove != null) {
-            food.remove(toRemove);
-            extend();
-            return true;
+    /**
+     * Set whether the snake is attacking the player
+     *
+     * @param attacking True to follow the player's head instead of the target food
+     * @return this Snake
+     */
+    public Snake setAttacking(boolean attacking) {
+        this.attacking = attacking;
+        return this;
+    }
+
+    /**
+     * Get the tick of the next scheduled target re-planning
+     *
+     * @return tick number
+     */
+    public long getNextPlanTick() {
+        return nextPlanTick;
+    }
+
+    /**
+     * Set the tick of the next scheduled target re-planning
+     *
+     * @param nextPlanTick tick number
+     * @return this Snake
+     */
+    public Snake setNextPlanTick(long nextPlanTick) {
+        this.nextPlanTick = nextPlanTick;
+        return this;
+    }
+
+    /**
+     * Check whether a circle may touch the snake, comparing it with the bounding box of the body
+     * inflated by the body size
+     * <p>
+     * A cheap test that rejects snakes far apart, a positive result still needs a check of the
+     * individual segments
+     *
+     * @param x      x coordinate of the center
+     * @param y      y coordinate of the center
+     * @param radius radius of the circle
+     * @return False if the circle cannot touch any segment
+     */
+    public boolean mayTouch(double x, double y, double radius) {
+        double margin = bodySize + radius;
+        return x >= body.getMinX() - margin && x <= body.getMaxX() + margin
+                && y >= body.getMinY() - margin && y <= body.getMaxY() + margin;
+    }
+
+    /**
+     * Make the head follow given point and the body follow the head, as the body model says
+     *
+     * @param targetX x coordinate of the target
+     * @param targetY y coordinate of the target
+     */
+    public void moveTo(double targetX, double targetY) {
+        if (bodyModel == BodyModel.Trail) {
+            body.moveAlongTrail(targetX, targetY);
+        } else {
+            body.moveTo(targetX, targetY);
         }
+    }
 
-        return false;
+    /**
+     * Get the way the body follows the head
+     *
+     * @return body model
+     */
+    public BodyModel getBodyModel() {
+        return bodyModel;
+    }
+
+    /**
+     * Set the way the body follows the head
+     *
+     * @param bodyModel body model
+     * @return this Snake
+     */
+    public Snake setBodyModel(BodyModel bodyModel) {
+        this.bodyModel = bodyModel;
+        return this;
+    }
+
+    /**
+     * Get the fidelity the snake was last moved with
+     *
+     * @return detail level
+     */
+    public DetailLevel getDetail() {
+        return detail;
+    }
+
+    /**
+     * Set the fidelity the snake is moved with
+     *
+     * @param detail detail level
+     * @return this Snake
+     */
+    public Snake setDetail(DetailLevel detail) {
+        this.detail = detail;
+        return this;
+    }
+
+    /**
+     * Get the path of the head recorded while only the head moves
+     *
+     * @return head path
+     */
+    public HeadPath getPath() {
+        return path;
+    }
+
+    /**
+     * Consume one piece of food the snake has reached
+     */
+    public void eat() {
+        extend();
     }
 
     /**
@@ -126,7 +306,7 @@ public class Snake {
     private void extend() {
         score++;
         if (score % 2 == 0) {
-            parts.add(0, new Segment(parts.get(0)));
+            body.extendTail();
         }
 
         // Maximum body size is 80
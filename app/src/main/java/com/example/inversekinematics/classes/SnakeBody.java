@@ -0,0 +1,570 @@
+package com.example.inversekinematics.classes;
+
+/**
+ * Snake body stored as parallel primitive arrays of segment coordinates
+ * <p>
+ * Segments are indexed from the tail (0) to the head (size - 1). The arrays form a ring buffer,
+ * so extending the tail is a constant time operation and no per-segment objects are needed.
+ * Segment centers are cached and only recalculated when a Segment is updated, together with the
+ * bounding box of all centers. Rotations are kept as unit direction vectors, so moving the body
+ * needs one square root per Segment and no trigonometric functions.
+ * The whole body is moved with inverse kinematics, each segment following the one in front of it,
+ * or laid on the trail of the head with {@link #moveAlongTrail(double, double)}
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class SnakeBody {
+    /**
+     * Initial capacity of the ring buffer, must be a power of two
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Length of every Segment
+     */
+    private final double len;
+    /**
+     * x coordinates of the Segment starting-points
+     */
+    private double[] ax;
+    /**
+     * y coordinates of the Segment starting-points
+     */
+    private double[] ay;
+    /**
+     * x coordinates of the Segment end-points
+     */
+    private double[] bx;
+    /**
+     * y coordinates of the Segment end-points
+     */
+    private double[] by;
+    /**
+     * x components of the unit directions of the Segments
+     */
+    private double[] dirX;
+    /**
+     * y components of the unit directions of the Segments
+     */
+    private double[] dirY;
+    /**
+     * Cached x coordinates of the Segment centers
+     */
+    private double[] cx;
+    /**
+     * Cached y coordinates of the Segment centers
+     */
+    private double[] cy;
+    /**
+     * Position of the tail Segment in the ring buffer
+     */
+    private int first;
+    /**
+     * Number of Segments
+     */
+    private int size;
+    /**
+     * Smallest x coordinate of the Segment centers
+     */
+    private double minX;
+    /**
+     * Smallest y coordinate of the Segment centers
+     */
+    private double minY;
+    /**
+     * Largest x coordinate of the Segment centers
+     */
+    private double maxX;
+    /**
+     * Largest y coordinate of the Segment centers
+     */
+    private double maxY;
+    /**
+     * Number of trail steps since the bounding box was last rebuilt, the box only grows in
+     * between
+     */
+    private int boundsAge;
+
+    /**
+     * Construct a new body as a straight line of Segments, starting with the tail at (x, y)
+     *
+     * @param x     x coordinate of the tail
+     * @param y     y coordinate of the tail
+     * @param len   length of every Segment
+     * @param count number of Segments
+     */
+    public SnakeBody(double x, double y, double len, int count) {
+        this.len = len;
+        allocate(INITIAL_CAPACITY);
+        reset(x, y, count);
+    }
+
+    /**
+     * Rebuild the body as a straight line of Segments, reusing the storage of the old body
+     *
+     * @param x     x coordinate of the tail
+     * @param y     y coordinate of the tail
+     * @param count number of Segments
+     */
+    public void reset(double x, double y, int count) {
+        if (ax.length < count) {
+            int capacity = ax.length;
+            while (capacity < count) {
+                capacity *= 2;
+            }
+            allocate(capacity);
+        }
+        first = 0;
+        clearBounds();
+
+        // Each Segment starts at the end-point of its parent
+        for (int i = 0; i < count; i++) {
+            ax[i] = x;
+            ay[i] = y;
+            dirX[i] = 1;
+            dirY[i] = 0;
+            calculateEnd(i);
+            includeBounds(i);
+            x = bx[i];
+            y = by[i];
+        }
+        size = count;
+    }
+
+    /**
+     * Get the number of Segments
+     *
+     * @return number of Segments
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the length of every Segment
+     *
+     * @return Segment length
+     */
+    public double getSegmentLength() {
+        return len;
+    }
+
+    /**
+     * Get the x coordinate of the Segment starting-point
+     *
+     * @param i Segment index, 0 being the tail
+     * @return x coordinate
+     */
+    public double getStartX(int i) {
+        return ax[index(i)];
+    }
+
+    /**
+     * Get the y coordinate of the Segment starting-point
+     *
+     * @param i Segment index, 0 being the tail
+     * @return y coordinate
+     */
+    public double getStartY(int i) {
+        return ay[index(i)];
+    }
+
+    /**
+     * Get the x coordinate of the Segment end-point
+     *
+     * @param i Segment index, 0 being the tail
+     * @return x coordinate
+     */
+    public double getEndX(int i) {
+        return bx[index(i)];
+    }
+
+    /**
+     * Get the y coordinate of the Segment end-point
+     *
+     * @param i Segment index, 0 being the tail
+     * @return y coordinate
+     */
+    public double getEndY(int i) {
+        return by[index(i)];
+    }
+
+    /**
+     * Get the angle of rotation of the Segment
+     * <p>
+     * Calculated on demand from the direction
+     *
+     * @param i Segment index, 0 being the tail
+     * @return angle in radians
+     */
+    public double getAngle(int i) {
+        int k = index(i);
+        return Math.atan2(dirY[k], dirX[k]);
+    }
+
+    /**
+     * Get the x coordinate of the Segment center
+     *
+     * @param i Segment index, 0 being the tail
+     * @return x coordinate
+     */
+    public double getCenterX(int i) {
+        return cx[index(i)];
+    }
+
+    /**
+     * Get the y coordinate of the Segment center
+     *
+     * @param i Segment index, 0 being the tail
+     * @return y coordinate
+     */
+    public double getCenterY(int i) {
+        return cy[index(i)];
+    }
+
+    /**
+     * Make the head follow given point and the rest of the body follow the head
+     *
+     * @param targetX x coordinate of the target
+     * @param targetY y coordinate of the target
+     */
+    public void moveTo(double targetX, double targetY) {
+        int head = index(size - 1);
+        follow(head, targetX, targetY);
+        calculateEnd(head);
+
+        // Bounds are rebuilt in the same pass that moves the Segments
+        clearBounds();
+        includeBounds(head);
+
+        for (int i = 0; i < size - 1; i++) {
+            // Make the rest of the tail follow the head
+            int current = index(i);
+            int next = index(i + 1);
+            follow(current, ax[next], ay[next]);
+            calculateEnd(current);
+            includeBounds(current);
+        }
+    }
+
+    /**
+     * Make only the head follow given point, leaving the rest of the body in place
+     * <p>
+     * Cheap low-fidelity step for snakes nobody can see, the body catches up with the next
+     * {@link #moveTo(double, double)}
+     *
+     * @param targetX x coordinate of the target
+     * @param targetY y coordinate of the target
+     */
+    public void moveHead(double targetX, double targetY) {
+        int head = index(size - 1);
+        follow(head, targetX, targetY);
+        calculateEnd(head);
+
+        // The rest of the body stays where it was, the bounds only grow by the new head
+        includeBounds(head);
+    }
+
+    /**
+     * Make the head follow given point and lay the body on the trail the head leaves behind
+     * <p>
+     * The Segments behind the neck are the trail: they keep their place and every time the neck
+     * stretches over a Segment length, a new Segment is laid at its start and the tail Segment
+     * is dropped, reusing its slot of the ring buffer. Only the head and the neck move, so a
+     * step costs the same for any body length. The neck is the only Segment that may be
+     * shorter than the Segment length.
+     *
+     * @param targetX x coordinate of the target
+     * @param targetY y coordinate of the target
+     */
+    public void moveAlongTrail(double targetX, double targetY) {
+        if (size < 2) {
+            moveTo(targetX, targetY);
+            return;
+        }
+
+        int head = index(size - 1);
+        follow(head, targetX, targetY);
+        calculateEnd(head);
+        includeBounds(head);
+
+        int neck = index(size - 2);
+        double dx = ax[head] - ax[neck];
+        double dy = ay[head] - ay[neck];
+        double distance = Math.sqrt(dx * dx + dy * dy);
+
+        while (distance >= len) {
+            // The neck becomes a full trail Segment pointing at the head
+            double endX = ax[neck] + dx / distance * len;
+            double endY = ay[neck] + dy / distance * len;
+            place(neck, ax[neck], ay[neck], endX, endY);
+            includeBounds(neck);
+
+            // Drop the tail and move the head one slot forward, its old slot is the new neck
+            first = (first + 1) & (ax.length - 1);
+            int moved = index(size - 1);
+            copy(head, moved);
+            neck = head;
+            head = moved;
+            ax[neck] = endX;
+            ay[neck] = endY;
+
+            dx = ax[head] - endX;
+            dy = ay[head] - endY;
+            distance = Math.sqrt(dx * dx + dy * dy);
+            boundsAge++;
+        }
+
+        place(neck, ax[neck], ay[neck], ax[head], ay[head]);
+        includeBounds(neck);
+
+        // Dropped tail Segments are only removed from the box once in a while
+        if (boundsAge > size) {
+            recomputeBounds();
+        }
+    }
+
+    /**
+     * Lay the body along the recorded path of its head, keeping the head in place
+     * <p>
+     * Used after a run of {@link #moveHead(double, double)} steps of a distant snake, so the
+     * body comes back where the head has been instead of being dragged straight behind it.
+     * Each Segment points toward the path point one Segment length behind it, Segments older
+     * than the path just follow their parent
+     *
+     * @param path recorded head path, points spaced by the Segment length
+     */
+    public void rebuild(HeadPath path) {
+        double targetX = bx[index(size - 1)];
+        double targetY = by[index(size - 1)];
+        clearBounds();
+
+        for (int s = 0; s < size; s++) {
+            int current = index(size - 1 - s);
+            if (s + 1 < path.size()) {
+                ax[current] = path.getX(s + 1);
+                ay[current] = path.getY(s + 1);
+            }
+            follow(current, targetX, targetY);
+            calculateEnd(current);
+            includeBounds(current);
+
+            targetX = ax[current];
+            targetY = ay[current];
+        }
+    }
+
+    /**
+     * Add a new Segment behind the tail, starting at the end-point of the current tail
+     */
+    public void extendTail() {
+        if (size == ax.length) {
+            grow();
+        }
+
+        int parent = first;
+        first = (first - 1) & (ax.length - 1);
+        ax[first] = bx[parent];
+        ay[first] = by[parent];
+        dirX[first] = 1;
+        dirY[first] = 0;
+        calculateEnd(first);
+        includeBounds(first);
+        size++;
+    }
+
+    /**
+     * Get the smallest x coordinate of the Segment centers
+     *
+     * @return left edge of the bounding box
+     */
+    public double getMinX() {
+        return minX;
+    }
+
+    /**
+     * Get the smallest y coordinate of the Segment centers
+     *
+     * @return top edge of the bounding box
+     */
+    public double getMinY() {
+        return minY;
+    }
+
+    /**
+     * Get the largest x coordinate of the Segment centers
+     *
+     * @return right edge of the bounding box
+     */
+    public double getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Get the largest y coordinate of the Segment centers
+     *
+     * @return bottom edge of the bounding box
+     */
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Makes the Segment at given position of the ring buffer follow certain coordinate
+     *
+     * @param k       position in the ring buffer
+     * @param targetX x coordinate of the target
+     * @param targetY y coordinate of the target
+     */
+    private void follow(int k, double targetX, double targetY) {
+        double dx = targetX - ax[k];
+        double dy = targetY - ay[k];
+        double mag = Math.sqrt(dx * dx + dy * dy);
+
+        // Segment is already at the target, there is no direction to follow
+        if (mag == 0) {
+            dirX[k] = 1;
+            dirY[k] = 0;
+            return;
+        }
+
+        dirX[k] = dx / mag;
+        dirY[k] = dy / mag;
+        ax[k] = targetX - dirX[k] * len;
+        ay[k] = targetY - dirY[k] * len;
+    }
+
+    /**
+     * Calculates the end-point and center of the Segment at given position of the ring buffer
+     *
+     * @param k position in the ring buffer
+     */
+    private void calculateEnd(int k) {
+        bx[k] = ax[k] + len * dirX[k];
+        by[k] = ay[k] + len * dirY[k];
+
+        cx[k] = (ax[k] + bx[k]) / 2;
+        cy[k] = (ay[k] + by[k]) / 2;
+    }
+
+    /**
+     * Empty the bounding box before the Segments are included again
+     */
+    private void clearBounds() {
+        minX = minY = Double.POSITIVE_INFINITY;
+        maxX = maxY = Double.NEGATIVE_INFINITY;
+        boundsAge = 0;
+    }
+
+    /**
+     * Rebuild the bounding box from all Segment centers
+     */
+    private void recomputeBounds() {
+        clearBounds();
+        for (int i = 0; i < size; i++) {
+            includeBounds(index(i));
+        }
+    }
+
+    /**
+     * Set the Segment at given position of the ring buffer to span between two points
+     *
+     * @param k      position in the ring buffer
+     * @param startX x coordinate of the starting-point
+     * @param startY y coordinate of the starting-point
+     * @param endX   x coordinate of the end-point
+     * @param endY   y coordinate of the end-point
+     */
+    private void place(int k, double startX, double startY, double endX, double endY) {
+        ax[k] = startX;
+        ay[k] = startY;
+        bx[k] = endX;
+        by[k] = endY;
+
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double mag = Math.sqrt(dx * dx + dy * dy);
+        dirX[k] = mag != 0 ? dx / mag : 1;
+        dirY[k] = mag != 0 ? dy / mag : 0;
+
+        cx[k] = (startX + endX) / 2;
+        cy[k] = (startY + endY) / 2;
+    }
+
+    /**
+     * Copy a Segment to another position of the ring buffer
+     *
+     * @param from source position
+     * @param to   target position
+     */
+    private void copy(int from, int to) {
+        ax[to] = ax[from];
+        ay[to] = ay[from];
+        bx[to] = bx[from];
+        by[to] = by[from];
+        dirX[to] = dirX[from];
+        dirY[to] = dirY[from];
+        cx[to] = cx[from];
+        cy[to] = cy[from];
+    }
+
+    /**
+     * Grow the bounding box to contain the center of the Segment at given position
+     *
+     * @param k position in the ring buffer
+     */
+    private void includeBounds(int k) {
+        minX = Math.min(minX, cx[k]);
+        minY = Math.min(minY, cy[k]);
+        maxX = Math.max(maxX, cx[k]);
+        maxY = Math.max(maxY, cy[k]);
+    }
+
+    /**
+     * Convert Segment index to a position in the ring buffer
+     *
+     * @param i Segment index, 0 being the tail
+     * @return position in the ring buffer
+     */
+    private int index(int i) {
+        return (first + i) & (ax.length - 1);
+    }
+
+    /**
+     * Create empty arrays of given capacity
+     *
+     * @param capacity number of Segments that fit in
+     */
+    private void allocate(int capacity) {
+        ax = new double[capacity];
+        ay = new double[capacity];
+        bx = new double[capacity];
+        by = new double[capacity];
+        dirX = new double[capacity];
+        dirY = new double[capacity];
+        cx = new double[capacity];
+        cy = new double[capacity];
+    }
+
+    /**
+     * Double the capacity and unroll the ring buffer so that the tail is at position 0
+     */
+    private void grow() {
+        double[] oldAx = ax, oldAy = ay, oldBx = bx, oldBy = by, oldDirX = dirX, oldDirY = dirY, oldCx = cx, oldCy = cy;
+        int mask = oldAx.length - 1;
+
+        allocate(oldAx.length * 2);
+        for (int i = 0; i < size; i++) {
+            int k = (first + i) & mask;
+            ax[i] = oldAx[k];
+            ay[i] = oldAy[k];
+            bx[i] = oldBx[k];
+            by[i] = oldBy[k];
+            dirX[i] = oldDirX[k];
+            dirY[i] = oldDirY[k];
+            cx[i] = oldCx[k];
+            cy[i] = oldCy[k];
+        }
+        first = 0;
+    }
+}
@@ -70,6 +70,30 @@ public class Vector {
         return new Vector(a.getX() + b.getX(), a.getY() + b.getY());
     }
 
+    /**
+     * Store the difference of two Vectors into the output Vector
+     *
+     * @param a   minuend Vector
+     * @param b   subtrahend Vector
+     * @param out Vector the result is written into, may be one of the operands
+     * @return the output Vector
+     */
+    public static Vector subInto(Vector a, Vector b, Vector out) {
+        return out.set(a.x - b.x, a.y - b.y);
+    }
+
+    /**
+     * Store the sum of two Vectors into the output Vector
+     *
+     * @param a   first summand Vector
+     * @param b   second summand Vector
+     * @param out Vector the result is written into, may be one of the operands
+     * @return the output Vector
+     */
+    public static Vector addInto(Vector a, Vector b, Vector out) {
+        return out.set(a.x + b.x, a.y + b.y);
+    }
+
     /**
      * Calculate the distance between the two coordinate Vectors
      *
@@ -78,8 +102,81 @@ public class Vector {
      * @return the distance between the two Vectors
      */
     public static double dist(Vector a, Vector b) {
-        Vector diff = new Vector(b.getX() - a.getX(), b.getY() - a.getY());
-        return diff.getLen();
+        return Math.sqrt(distSq(a, b));
+    }
+
+    /**
+     * Calculate the squared distance between the two coordinate Vectors
+     *
+     * @param a source Vector
+     * @param b target Vector
+     * @return the squared distance between the two Vectors
+     */
+    public static double distSq(Vector a, Vector b) {
+        return a.distSq(b.x, b.y);
+    }
+
+    /**
+     * Calculate the distance between this Vector and the point (x, y)
+     *
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     * @return the distance to the point
+     */
+    public double dist(double x, double y) {
+        return Math.sqrt(distSq(x, y));
+    }
+
+    /**
+     * Calculate the squared distance between this Vector and the point (x, y)
+     *
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     * @return the squared distance to the point
+     */
+    public double distSq(double x, double y) {
+        return distSq(this.x, this.y, x, y);
+    }
+
+    /**
+     * Calculate the squared distance between two points
+     * <p>
+     * Threshold checks should compare squared distances against squared radii to avoid the
+     * square root entirely
+     *
+     * @param ax x coordinate of the first point
+     * @param ay y coordinate of the first point
+     * @param bx x coordinate of the second point
+     * @param by y coordinate of the second point
+     * @return the squared distance between the points
+     */
+    public static double distSq(double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Set both coordinates of the Vector
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return this Vector
+     */
+    public Vector set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Copy the coordinates of another Vector
+     *
+     * @param src source Vector
+     * @return this Vector
+     */
+    public Vector set(Vector src) {
+        return set(src.x, src.y);
     }
 
     /**
@@ -0,0 +1,467 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.GameState;
+import com.example.inversekinematics.enums.ProfilePhase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays many seeded headless games in parallel and reports their results as CSV
+ * <p>
+ * Every game gets its own engine and runs on one thread of a fixed pool without any pause
+ * between ticks, so the report gives both the outcome of the bots and the raw throughput of the
+ * engine. Game i is played with seed firstSeed + i and otherwise the parameters of the config,
+ * which makes every batch repeatable. A game that fails is reported as such in its row, the other
+ * games of the batch are played to their end.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class BatchRunner {
+    /**
+     * Width of the simulated screen
+     */
+    private static final double SCREEN_WIDTH = 1080;
+    /**
+     * Height of the simulated screen
+     */
+    private static final double SCREEN_HEIGHT = 1584;
+    /**
+     * Phases of a tick reported for every game
+     */
+    private static final ProfilePhase[] PHASES = {
+            ProfilePhase.Tick, ProfilePhase.Time, ProfilePhase.Player,
+            ProfilePhase.Enemies, ProfilePhase.Collisions, ProfilePhase.Cleanup
+    };
+    /**
+     * Parameters shared by all games
+     */
+    private final GameConfig config;
+    /**
+     * Number of games
+     */
+    private int games = 100;
+    /**
+     * Seed of the first game
+     */
+    private long firstSeed = 1;
+    /**
+     * Number of games played at the same time
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * True to record the input of every game
+     */
+    private boolean recording;
+
+    /**
+     * Create a new runner
+     *
+     * @param config parameters of every game, the seed is replaced by the game's own
+     */
+    public BatchRunner(GameConfig config) {
+        this.config = config.copy();
+    }
+
+    /**
+     * Set the number of games
+     *
+     * @param games number of games
+     * @return this BatchRunner
+     */
+    public BatchRunner setGames(int games) {
+        this.games = Math.max(0, games);
+        return this;
+    }
+
+    /**
+     * Set the seed of the first game, the following games use the following seeds
+     *
+     * @param firstSeed seed of the first game
+     * @return this BatchRunner
+     */
+    public BatchRunner setFirstSeed(long firstSeed) {
+        this.firstSeed = firstSeed;
+        return this;
+    }
+
+    /**
+     * Set the number of games played at the same time
+     *
+     * @param threads number of threads, the processor count by default
+     * @return this BatchRunner
+     */
+    public BatchRunner setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Set whether the input of every game is recorded, so that it can be played again with
+     * {@link Replay}
+     *
+     * @param recording True to record the games
+     * @return this BatchRunner
+     */
+    public BatchRunner setRecording(boolean recording) {
+        this.recording = recording;
+        return this;
+    }
+
+    /**
+     * Play all games and wait for them to finish
+     *
+     * @return result of every game, in the order of the seeds
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public List<Result> run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "BatchGame-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try {
+            List<Future<Result>> futures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                final long seed = firstSeed + i;
+                futures.add(executor.submit(new Callable<Result>() {
+                    @Override
+                    public Result call() {
+                        return play(seed);
+                    }
+                }));
+            }
+
+            List<Result> results = new ArrayList<>(games);
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Game failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Play one game to its end on the calling thread
+     *
+     * @param seed seed of the game
+     * @return result of the game
+     */
+    private Result play(long seed) {
+        HeadlessGame game = new HeadlessGame(SCREEN_WIDTH, SCREEN_HEIGHT);
+        GameEngine engine = game.getEngine();
+        InputRecorder recorder = recording ? new InputRecorder() : null;
+        engine.setRecorder(recorder);
+
+        long start = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            game.init(config.copy().setSeed(seed));
+            game.run(Long.MAX_VALUE);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            engine.shutdown();
+        }
+        long time = System.nanoTime() - start;
+
+        byte[] recorded = recorder != null && recorder.isFinished() ? recorder.toByteArray() : null;
+        return new Result(seed, engine, time, recorded, failure);
+    }
+
+    /**
+     * Write a CSV report with one row per game and a last row summarizing all of them
+     * <p>
+     * Phase columns hold the mean duration of the phase over the whole game and the percentiles
+     * of its last ticks, all in microseconds. A failed game has the state Failed and the error in
+     * the last column, its other columns cover the ticks played before the failure. The summary
+     * row holds the mean score, the total ticks and the mean phase durations, its ticks per
+     * second are the total ticks over the summed game times and its error column the number of
+     * failed games.
+     *
+     * @param results results of the games
+     * @param out     target of the report
+     * @throws IOException if the report cannot be written
+     */
+    public static void writeCsv(List<Result> results, Appendable out) throws IOException {
+        out.append("seed,state,score,ticks,seconds,ticks_per_second");
+        for (ProfilePhase phase : PHASES) {
+            String name = phase.name().toLowerCase(Locale.ROOT);
+            out.append(',').append(name).append("_mean_us")
+                    .append(',').append(name).append("_p50_us")
+                    .append(',').append(name).append("_p95_us")
+                    .append(',').append(name).append("_p99_us");
+        }
+        out.append(",error\n");
+
+        long scoreSum = 0, tickSum = 0, timeSum = 0;
+        long[] phaseTotals = new long[PHASES.length];
+        long[] phaseCounts = new long[PHASES.length];
+        int failed = 0;
+
+        for (Result result : results) {
+            out.append(String.valueOf(result.seed)).append(',')
+                    .append(result.isFailed() ? "Failed" : result.state.name()).append(',')
+                    .append(String.valueOf(result.score)).append(',')
+                    .append(String.valueOf(result.ticks)).append(',')
+                    .append(format(result.nanos / 1e9)).append(',')
+                    .append(format(result.getTicksPerSecond()));
+            for (int p = 0; p < PHASES.length; p++) {
+                out.append(',').append(format(micros(result.getMeanNanos(p))))
+                        .append(',').append(format(micros(result.p50[p])))
+                        .append(',').append(format(micros(result.p95[p])))
+                        .append(',').append(format(micros(result.p99[p])));
+                phaseTotals[p] += result.totals[p];
+                phaseCounts[p] += result.counts[p];
+            }
+            out.append(',');
+            if (result.isFailed()) {
+                out.append(quote(result.failure.toString()));
+                failed++;
+            }
+            out.append('\n');
+
+            scoreSum += result.score;
+            tickSum += result.ticks;
+            timeSum += result.nanos;
+        }
+
+        int count = results.size();
+        out.append("all,,")
+                .append(format(count == 0 ? 0 : (double) scoreSum / count)).append(',')
+                .append(String.valueOf(tickSum)).append(',')
+                .append(format(timeSum / 1e9)).append(',')
+                .append(format(timeSum == 0 ? 0 : tickSum * 1e9 / timeSum));
+        for (int p = 0; p < PHASES.length; p++) {
+            double mean = phaseCounts[p] == 0 ? 0 : (double) phaseTotals[p] / phaseCounts[p];
+            out.append(',').append(format(micros(mean))).append(",,,");
+        }
+        out.append(',').append(failed == 0 ? "" : failed + " failed").append('\n');
+    }
+
+    /**
+     * Quote a text for the report, so that it can hold commas, quotes and line breaks
+     *
+     * @param text quoted text
+     * @return text in double quotes with the quotes inside doubled
+     */
+    private static String quote(String text) {
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Convert nanoseconds to microseconds
+     *
+     * @param nanos duration in nanoseconds
+     * @return duration in microseconds
+     */
+    private static double micros(double nanos) {
+        return nanos / 1000;
+    }
+
+    /**
+     * Format a number for the report, independent of the default locale
+     *
+     * @param value formatted number
+     * @return number with three decimal places
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * Outcome and timings of one game
+     */
+    public static class Result {
+        /**
+         * Seed of the game
+         */
+        private final long seed;
+        /**
+         * Final game state, undefined if the game failed
+         */
+        private final GameState state;
+        /**
+         * Final player score
+         */
+        private final int score;
+        /**
+         * Number of played ticks
+         */
+        private final long ticks;
+        /**
+         * Time the game took in nanoseconds, initialization included
+         */
+        private final long nanos;
+        /**
+         * Number of measurements of each reported phase
+         */
+        private final long[] counts = new long[PHASES.length];
+        /**
+         * Summed durations of each reported phase in nanoseconds
+         */
+        private final long[] totals = new long[PHASES.length];
+        /**
+         * Median duration of each reported phase over the last ticks
+         */
+        private final long[] p50 = new long[PHASES.length];
+        /**
+         * 95th percentile duration of each reported phase over the last ticks
+         */
+        private final long[] p95 = new long[PHASES.length];
+        /**
+         * 99th percentile duration of each reported phase over the last ticks
+         */
+        private final long[] p99 = new long[PHASES.length];
+        /**
+         * Recorded input of the game, null if it was not recorded or failed
+         */
+        private final byte[] recording;
+        /**
+         * Exception the game failed with, null if it finished
+         */
+        private final RuntimeException failure;
+
+        /**
+         * Collect the result of a finished game
+         *
+         * @param seed      seed of the game
+         * @param engine    engine that played the game
+         * @param nanos     time the game took in nanoseconds
+         * @param recording recorded input of the game, null if it was not recorded or failed
+         * @param failure   exception the game failed with, null if it finished
+         */
+        private Result(long seed, GameEngine engine, long nanos, byte[] recording, RuntimeException failure) {
+            this.seed = seed;
+            this.recording = recording;
+            this.failure = failure;
+            this.state = engine.getCurrentState();
+            this.score = engine.getScore();
+            this.ticks = engine.getTick();
+            this.nanos = nanos;
+
+            TickProfiler profiler = engine.getProfiler();
+            TickProfiler.Stats stats = new TickProfiler.Stats();
+            for (int p = 0; p < PHASES.length; p++) {
+                counts[p] = profiler.getCount(PHASES[p]);
+                totals[p] = profiler.getTotal(PHASES[p]);
+                profiler.getStats(PHASES[p], stats);
+                p50[p] = stats.getP50();
+                p95[p] = stats.getP95();
+                p99[p] = stats.getP99();
+            }
+        }
+
+        /**
+         * Get the seed of the game
+         *
+         * @return random seed
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Get the final game state
+         *
+         * @return game state (Lost, TimedOut), undefined if the game failed
+         */
+        public GameState getState() {
+            return state;
+        }
+
+        /**
+         * Get the final player score
+         *
+         * @return player score
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * Get the number of played ticks
+         *
+         * @return number of ticks
+         */
+        public long getTicks() {
+            return ticks;
+        }
+
+        /**
+         * Get the time the game took
+         *
+         * @return duration in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Get the simulation speed of the game
+         *
+         * @return ticks per second
+         */
+        public double getTicksPerSecond() {
+            return nanos == 0 ? 0 : ticks * 1e9 / nanos;
+        }
+
+        /**
+         * Get the recorded input of the game
+         *
+         * @return recording readable by {@link Replay}, null if the game was not recorded or failed
+         */
+        public byte[] getRecording() {
+            return recording;
+        }
+
+        /**
+         * Check whether the game failed before its end
+         *
+         * @return True if the game threw an exception
+         */
+        public boolean isFailed() {
+            return failure != null;
+        }
+
+        /**
+         * Get the exception the game failed with
+         *
+         * @return exception, null if the game finished
+         */
+        public RuntimeException getFailure() {
+            return failure;
+        }
+
+        /**
+         * Get the mean duration of a reported phase over the whole game
+         *
+         * @param p index of the phase in the report
+         * @return duration in nanoseconds
+         */
+        private double getMeanNanos(int p) {
+            return counts[p] == 0 ? 0 : (double) totals[p] / counts[p];
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Food;
+
+import java.util.List;
+
+/**
+ * Nearest-neighbour index over the food on the screen
+ * <p>
+ * Food is added when it spawns and removed when it is eaten, so the index never has to be
+ * rebuilt as a whole. Storage of eaten food is reclaimed once it outweighs the live food.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class FoodIndex {
+    /**
+     * Compaction is not worth it below this number of removed entries
+     */
+    private static final int MIN_COMPACT = 64;
+    /**
+     * Spatial grid holding the food, owner is the Food
+     */
+    private final SpatialGrid grid;
+
+    /**
+     * Create a new empty index covering given area
+     *
+     * @param width    width of the covered area
+     * @param height   height of the covered area
+     * @param cellSize side length of one grid cell
+     */
+    public FoodIndex(double width, double height, double cellSize) {
+        grid = new SpatialGrid(width, height, cellSize);
+    }
+
+    /**
+     * Add newly spawned food to the index
+     *
+     * @param apple spawned Food
+     */
+    public void add(Food apple) {
+        grid.insert(apple, 0, apple.getX(), apple.getY());
+    }
+
+    /**
+     * Remove all food within the radius around given point in one pass
+     *
+     * @param x      x coordinate of the center
+     * @param y      y coordinate of the center
+     * @param radius radius of the removed area
+     * @param cursor cursor used for the grid query
+     * @param out    list the removed Food is appended to
+     * @return number of removed food
+     */
+    public int removeWithin(double x, double y, double radius, SpatialGrid.Cursor cursor, List<Food> out) {
+        double radiusSq = radius * radius;
+        int removed = 0;
+
+        // Removal only marks entries, so the ids of the cursor stay valid until the compaction
+        int count = grid.query(x, y, radius, cursor);
+        for (int i = 0; i < count; i++) {
+            int id = cursor.get(i);
+            if (grid.distSq(id, x, y) <= radiusSq) {
+                out.add((Food) grid.getOwner(id));
+                grid.remove(id);
+                removed++;
+            }
+        }
+
+        if (removed > 0) {
+            compactIfSparse();
+        }
+        return removed;
+    }
+
+    /**
+     * Find the closest food accepted by the filter whose distance lies between the two radii
+     * <p>
+     * The grid is searched ring by ring outwards from the point and the search stops as soon as
+     * no further ring can contain a closer food
+     *
+     * @param x       x coordinate of the center
+     * @param y       y coordinate of the center
+     * @param minDist food closer than this is ignored
+     * @param maxDist food further than this is ignored
+     * @param filter  additional condition the food has to meet
+     * @param cursor  cursor used for the grid queries
+     * @return closest matching Food or null if there is none
+     */
+    public Food nearest(double x, double y, double minDist, double maxDist, Filter filter, SpatialGrid.Cursor cursor) {
+        double cellSize = grid.getCellSize();
+        double minDistSq = minDist * minDist;
+        double maxDistSq = maxDist * maxDist;
+        double bestDistSq = Double.MAX_VALUE;
+        Food best = null;
+
+        for (int ring = 0; ring < grid.getRingCount(); ring++) {
+            // Everything in this ring is further than the radius
+            if ((ring - 1) * cellSize > maxDist) break;
+
+            int count = grid.queryRing(x, y, ring, cursor);
+            for (int i = 0; i < count; i++) {
+                int id = cursor.get(i);
+                double distSq = grid.distSq(id, x, y);
+
+                // Distance first, the filter may be more expensive
+                if (distSq < bestDistSq && distSq > minDistSq && distSq <= maxDistSq) {
+                    Food food = (Food) grid.getOwner(id);
+                    if (filter == null || filter.accept(food)) {
+                        bestDistSq = distSq;
+                        best = food;
+                    }
+                }
+            }
+
+            // Food in the next rings can't be closer than this
+            double ringDist = ring * cellSize;
+            if (best != null && bestDistSq <= ringDist * ringDist) break;
+        }
+
+        return best;
+    }
+
+    /**
+     * Reclaim storage of eaten food once it outweighs the live food
+     */
+    private void compactIfSparse() {
+        int removed = grid.getRemovedCount();
+        if (removed > MIN_COMPACT && removed > grid.getLiveCount()) {
+            grid.compact();
+        }
+    }
+
+    /**
+     * Condition for the nearest food search
+     */
+    public interface Filter {
+        /**
+         * Check whether the food can be returned by the search
+         *
+         * @param food candidate Food
+         * @return True if the food is acceptable
+         */
+        boolean accept(Food food);
+    }
+}
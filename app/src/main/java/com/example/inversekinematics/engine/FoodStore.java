@@ -0,0 +1,90 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Food;
+
+import java.util.Arrays;
+
+/**
+ * Dense array of the food in the game with constant time removal
+ * <p>
+ * Every Food remembers its slot in the array. Removal moves the last Food into the freed slot,
+ * so the order of the food changes but nothing has to be searched or shifted. Slots of the
+ * remaining food stay the same until another Food is moved into them.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class FoodStore {
+    /**
+     * Stored food, the first {@link #size} slots are used
+     */
+    private Food[] items = new Food[64];
+    /**
+     * Number of stored food
+     */
+    private int size;
+
+    /**
+     * Get the food in given slot
+     *
+     * @param slot slot index, less than {@link #size()}
+     * @return stored Food
+     */
+    public Food get(int slot) {
+        if (slot >= size) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " of " + size);
+        }
+        return items[slot];
+    }
+
+    /**
+     * Get the number of stored food
+     *
+     * @return number of food
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Store new food in the last slot
+     *
+     * @param apple added Food
+     */
+    public void add(Food apple) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        apple.setSlot(size);
+        items[size++] = apple;
+    }
+
+    /**
+     * Remove food by moving the last food into its slot
+     *
+     * @param apple stored Food
+     */
+    public void remove(Food apple) {
+        int slot = apple.getSlot();
+        if (slot < 0 || slot >= size || items[slot] != apple) {
+            throw new IllegalArgumentException("Food is not stored");
+        }
+
+        Food last = items[--size];
+        items[slot] = last;
+        last.setSlot(slot);
+        items[size] = null;
+        apple.setSlot(-1);
+    }
+
+    /**
+     * Remove all food
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            items[i].setSlot(-1);
+            items[i] = null;
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Vector;
+
+import java.util.Random;
+
+/**
+ * Picks random positions outside of occupied circles in bounded time
+ * <p>
+ * The world is divided into square cells and every cell touched by an occupied circle is marked
+ * busy. Positions are drawn uniformly from a random free cell, so no candidate ever has to be
+ * rejected and any point of a free cell is guaranteed to lie outside of all circles. The list of
+ * free cells is built once per batch of samples, after the occupied circles are known.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class FreeSpaceSampler {
+    /**
+     * Width of the sampled area
+     */
+    private final double width;
+    /**
+     * Height of the sampled area
+     */
+    private final double height;
+    /**
+     * Side length of one cell
+     */
+    private final double cellSize;
+    /**
+     * Number of cell columns
+     */
+    private final int cols;
+    /**
+     * Number of cell rows
+     */
+    private final int rows;
+    /**
+     * Generation in which each cell was last marked busy
+     */
+    private final int[] busy;
+    /**
+     * Indexes of the free cells, valid while {@link #dirty} is false
+     */
+    private final int[] freeCells;
+    /**
+     * Number of free cells
+     */
+    private int freeCount;
+    /**
+     * Current generation, cells marked in older generations are free
+     */
+    private int generation = 1;
+    /**
+     * True if cells were marked since the free cells were collected
+     */
+    private boolean dirty = true;
+
+    /**
+     * Create a new sampler covering given area
+     *
+     * @param width    width of the sampled area
+     * @param height   height of the sampled area
+     * @param cellSize side length of one cell
+     */
+    public FreeSpaceSampler(double width, double height, double cellSize) {
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.busy = new int[cols * rows];
+        this.freeCells = new int[cols * rows];
+    }
+
+    /**
+     * Mark all cells free
+     */
+    public void clear() {
+        generation++;
+        dirty = true;
+    }
+
+    /**
+     * Mark all cells touched by given circle busy
+     *
+     * @param x      x coordinate of the center
+     * @param y      y coordinate of the center
+     * @param radius radius of the circle
+     */
+    public void occupy(double x, double y, double radius) {
+        int minCol = column(x - radius);
+        int maxCol = column(x + radius);
+        int minRow = row(y - radius);
+        int maxRow = row(y + radius);
+        double radiusSq = radius * radius;
+
+        for (int row = minRow; row <= maxRow; row++) {
+            // Closest point of the cell to the center
+            double top = row * cellSize;
+            double dy = y - Math.max(top, Math.min(y, top + cellSize));
+
+            for (int col = minCol; col <= maxCol; col++) {
+                double left = col * cellSize;
+                double dx = x - Math.max(left, Math.min(x, left + cellSize));
+
+                if (dx * dx + dy * dy <= radiusSq) {
+                    busy[row * cols + col] = generation;
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Get the number of free cells
+     *
+     * @return number of free cells
+     */
+    public int getFreeCount() {
+        collectFreeCells();
+        return freeCount;
+    }
+
+    /**
+     * Pick a random position within a random free cell
+     * <p>
+     * If there is no free cell left, any position in the area is returned
+     *
+     * @param random source of randomness
+     * @param out    Vector the position is written into
+     * @return the out Vector
+     */
+    public Vector sample(Random random, Vector out) {
+        collectFreeCells();
+
+        if (freeCount == 0) {
+            return out.set(random.nextDouble() * width, random.nextDouble() * height);
+        }
+
+        int cell = freeCells[random.nextInt(freeCount)];
+        double left = (cell % cols) * cellSize;
+        double top = (cell / cols) * cellSize;
+
+        // Border cells may reach over the edge of the area
+        double cellWidth = Math.min(cellSize, width - left);
+        double cellHeight = Math.min(cellSize, height - top);
+        return out.set(left + random.nextDouble() * cellWidth, top + random.nextDouble() * cellHeight);
+    }
+
+    /**
+     * Collect the free cells if cells were marked since they were last collected
+     */
+    private void collectFreeCells() {
+        if (!dirty) return;
+
+        freeCount = 0;
+        for (int cell = 0; cell < busy.length; cell++) {
+            if (busy[cell] != generation) {
+                freeCells[freeCount++] = cell;
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Convert x coordinate to a column index, clamped into the grid
+     *
+     * @param x x coordinate
+     * @return column index
+     */
+    private int column(double x) {
+        int col = (int) Math.floor(x / cellSize);
+        return Math.max(0, Math.min(cols - 1, col));
+    }
+
+    /**
+     * Convert y coordinate to a row index, clamped into the grid
+     *
+     * @param y y coordinate
+     * @return row index
+     */
+    private int row(double y) {
+        int row = (int) Math.floor(y / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.BodyModel;
+import com.example.inversekinematics.enums.SnakeType;
+
+/**
+ * Tunable parameters of a game
+ * <p>
+ * The defaults match the regular game played on the device
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class GameConfig {
+    /**
+     * Number of enemy snakes kept in the game
+     */
+    private int enemyCount = 5;
+    /**
+     * Initial maximum number of food on the screen
+     */
+    private int foodLimit = 25;
+    /**
+     * Number of segments of a newly created snake
+     */
+    private int snakeLength = 10;
+    /**
+     * Length of the game in ticks
+     */
+    private int gameLength = 1800;
+    /**
+     * Number of threads updating the enemies, 1 updates them on the game thread
+     */
+    private int parallelism = 1;
+    /**
+     * Seed of the game's random numbers, games with the same seed and input play out the same
+     */
+    private long seed = System.nanoTime();
+    /**
+     * Width of the world, 0 for a world the size of the screen
+     */
+    private double worldWidth;
+    /**
+     * Height of the world, 0 for a world the size of the screen
+     */
+    private double worldHeight;
+    /**
+     * Way the bodies of new snakes follow their heads
+     */
+    private BodyModel bodyModel = BodyModel.Chain;
+    /**
+     * Relative chance of a new enemy being Aggressive
+     */
+    private int aggressiveWeight = 1;
+    /**
+     * Relative chance of a new enemy being Passive
+     */
+    private int passiveWeight = 1;
+    /**
+     * Relative chance of a new enemy being Hybrid
+     */
+    private int hybridWeight = 1;
+    /**
+     * True if enemies cannot kill the player, used to keep simulated games running to their end
+     */
+    private boolean playerInvulnerable;
+
+    /**
+     * Get the number of enemy snakes
+     *
+     * @return number of enemy snakes
+     */
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /**
+     * Set the number of enemy snakes
+     *
+     * @param enemyCount number of enemy snakes
+     * @return this GameConfig
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public GameConfig setEnemyCount(int enemyCount) {
+        if (enemyCount < 0) {
+            throw new IllegalArgumentException("Invalid enemy count " + enemyCount);
+        }
+        this.enemyCount = enemyCount;
+        return this;
+    }
+
+    /**
+     * Get the initial food limit
+     *
+     * @return initial maximum number of food
+     */
+    public int getFoodLimit() {
+        return foodLimit;
+    }
+
+    /**
+     * Set the initial food limit
+     * <p>
+     * Enemies with nothing safe to eat pick a random food, so there must always be some left
+     * after one is eaten
+     *
+     * @param foodLimit initial maximum number of food
+     * @return this GameConfig
+     * @throws IllegalArgumentException if the limit is less than 2
+     */
+    public GameConfig setFoodLimit(int foodLimit) {
+        if (foodLimit < 2) {
+            throw new IllegalArgumentException("Invalid food limit " + foodLimit + ", at least 2 are needed");
+        }
+        this.foodLimit = foodLimit;
+        return this;
+    }
+
+    /**
+     * Get the number of segments of a new snake
+     *
+     * @return number of segments
+     */
+    public int getSnakeLength() {
+        return snakeLength;
+    }
+
+    /**
+     * Set the number of segments of a new snake
+     *
+     * @param snakeLength number of segments
+     * @return this GameConfig
+     * @throws IllegalArgumentException if the length is less than 1
+     */
+    public GameConfig setSnakeLength(int snakeLength) {
+        if (snakeLength < 1) {
+            throw new IllegalArgumentException("Invalid snake length " + snakeLength);
+        }
+        this.snakeLength = snakeLength;
+        return this;
+    }
+
+    /**
+     * Get the length of the game
+     *
+     * @return game length in ticks
+     */
+    public int getGameLength() {
+        return gameLength;
+    }
+
+    /**
+     * Set the length of the game
+     *
+     * @param gameLength game length in ticks
+     * @return this GameConfig
+     */
+    public GameConfig setGameLength(int gameLength) {
+        this.gameLength = gameLength;
+        return this;
+    }
+
+    /**
+     * Get the number of threads updating the enemies
+     *
+     * @return number of threads, 1 for the sequential update
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set the number of threads updating the enemies
+     * <p>
+     * The parallel update gives the same results as the sequential one
+     *
+     * @param parallelism number of threads, 1 for the sequential update
+     * @return this GameConfig
+     */
+    public GameConfig setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * Get the seed of the game's random numbers
+     *
+     * @return random seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Set the seed of the game's random numbers
+     *
+     * @param seed random seed
+     * @return this GameConfig
+     */
+    public GameConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Get the width of the world
+     *
+     * @return world width, 0 for the width of the screen
+     */
+    public double getWorldWidth() {
+        return worldWidth;
+    }
+
+    /**
+     * Get the height of the world
+     *
+     * @return world height, 0 for the height of the screen
+     */
+    public double getWorldHeight() {
+        return worldHeight;
+    }
+
+    /**
+     * Set the size of the world
+     * <p>
+     * A world larger than the screen is played with a camera following the player, and enemies
+     * far from the camera are simulated less often or not at all
+     *
+     * @param worldWidth  world width, 0 for the width of the screen
+     * @param worldHeight world height, 0 for the height of the screen
+     * @return this GameConfig
+     */
+    public GameConfig setWorldSize(double worldWidth, double worldHeight) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        return this;
+    }
+
+    /**
+     * Get the way the bodies of new snakes follow their heads
+     *
+     * @return body model
+     */
+    public BodyModel getBodyModel() {
+        return bodyModel;
+    }
+
+    /**
+     * Set the way the bodies of new snakes follow their heads
+     * <p>
+     * Trail bodies cost the same per tick regardless of their length
+     *
+     * @param bodyModel body model
+     * @return this GameConfig
+     */
+    public GameConfig setBodyModel(BodyModel bodyModel) {
+        this.bodyModel = bodyModel;
+        return this;
+    }
+
+    /**
+     * Get the relative chance of a new enemy being of given type
+     *
+     * @param type Type of Snake
+     * @return weight of the type, 0 for the player
+     */
+    public int getBotWeight(SnakeType type) {
+        if (type == SnakeType.Aggressive) {
+            return aggressiveWeight;
+        } else if (type == SnakeType.Passive) {
+            return passiveWeight;
+        } else if (type == SnakeType.Hybrid) {
+            return hybridWeight;
+        }
+        return 0;
+    }
+
+    /**
+     * Set the relative chances of new enemies being of each type
+     * <p>
+     * By default all types are equally likely
+     *
+     * @param aggressive weight of Aggressive enemies
+     * @param passive    weight of Passive enemies
+     * @param hybrid     weight of Hybrid enemies
+     * @return this GameConfig
+     * @throws IllegalArgumentException if a weight is negative or all are 0
+     */
+    public GameConfig setBotMix(int aggressive, int passive, int hybrid) {
+        if (aggressive < 0 || passive < 0 || hybrid < 0 || aggressive + passive + hybrid == 0) {
+            throw new IllegalArgumentException("Invalid bot mix " + aggressive + ":" + passive + ":" + hybrid);
+        }
+        this.aggressiveWeight = aggressive;
+        this.passiveWeight = passive;
+        this.hybridWeight = hybrid;
+        return this;
+    }
+
+    /**
+     * Check whether enemies can kill the player
+     *
+     * @return True if the player survives running into enemies
+     */
+    public boolean isPlayerInvulnerable() {
+        return playerInvulnerable;
+    }
+
+    /**
+     * Set whether enemies can kill the player
+     * <p>
+     * A simulated player that cannot die plays every game to its full length, so the enemies and
+     * the food go through all stages of the game. Leaving the world still ends the game.
+     *
+     * @param playerInvulnerable True if the player survives running into enemies
+     * @return this GameConfig
+     */
+    public GameConfig setPlayerInvulnerable(boolean playerInvulnerable) {
+        this.playerInvulnerable = playerInvulnerable;
+        return this;
+    }
+
+    /**
+     * Create a new config with the same parameters
+     *
+     * @return copy of this config
+     */
+    public GameConfig copy() {
+        return new GameConfig()
+                .setEnemyCount(enemyCount)
+                .setFoodLimit(foodLimit)
+                .setSnakeLength(snakeLength)
+                .setGameLength(gameLength)
+                .setParallelism(parallelism)
+                .setSeed(seed)
+                .setWorldSize(worldWidth, worldHeight)
+                .setBodyModel(bodyModel)
+                .setBotMix(aggressiveWeight, passiveWeight, hybridWeight)
+                .setPlayerInvulnerable(playerInvulnerable);
+    }
+}
@@ -1,16 +1,20 @@
 package com.example.inversekinematics.engine;
 
-import android.os.Build;
-
 import com.example.inversekinematics.classes.Food;
-import com.example.inversekinematics.classes.Segment;
+import com.example.inversekinematics.classes.HeadPath;
+import com.example.inversekinematics.classes.ObjectPool;
 import com.example.inversekinematics.classes.Snake;
+import com.example.inversekinematics.classes.SnakeBody;
 import com.example.inversekinematics.classes.Vector;
+import com.example.inversekinematics.enums.BodyModel;
+import com.example.inversekinematics.enums.DetailLevel;
 import com.example.inversekinematics.enums.GameState;
+import com.example.inversekinematics.enums.ProfilePhase;
 import com.example.inversekinematics.enums.SnakeState;
 import com.example.inversekinematics.enums.SnakeType;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 
@@ -18,49 +22,57 @@ import java.util.Random;
  * Main class for managing the game
  * <p>
  * Updates the game state and handles player and enemy movement and food spawning
+ * <p>
+ * The engine has no Android dependencies and can be driven headlessly, see {@link HeadlessGame}.
+ * All game state belongs to the instance, so independent games can run side by side on separate
+ * threads, each engine driven by one thread at a time.
  *
  * @author Pavel Mikulas
  * @version %I%, %G%
  */
 public class GameEngine {
-    //region Static variables
+    //region Game state
+    /**
+     * Width of the screen
+     */
+    private final double screenWidth;
     /**
-     * Dimensions of the screen
+     * Height of the screen
      */
-    public static Vector screenSize;
+    private final double screenHeight;
     /**
      * Remaining game time ticks
      */
-    public static int timeLeft;
+    private int timeLeft;
     /**
      * Current player score
      */
-    private static int score;
-    //endregion
-
-    //region SpawnLocations
+    private int score;
     /**
      * Current game state (Running, Lost, TimedOut)
      */
-    private static GameState currentState;
+    private GameState currentState;
     //endregion
 
     //region Private variables
-    private Random random = new Random();
+    /**
+     * Source of all randomness of the game, seeded from the config so that games can be replayed
+     */
+    private Random random;
+    /**
+     * Parameters of the current game
+     */
+    private GameConfig config;
     /**
      * List of enemy spawn locations
      * <p>
-     * Enemies are spawning offscreen
-     */
-    private final List<Vector> spawnLocations = new ArrayList() {{
-        add(new Vector(-50, -50));
-        add(new Vector(screenSize.getX() / 2, -50));
-        add(new Vector(screenSize.getX() + 5, -50));
-        add(new Vector(-50, screenSize.getY() + 50));
-        add(new Vector(screenSize.getX() / 2, screenSize.getY() + 50));
-        add(new Vector(screenSize.getX() + 50, screenSize.getY() + 50));
-        add(new Vector(screenSize.getX() + 50, screenSize.getY() / 2));
-    }};
+     * Enemies are spawning offscreen, around the edges of the world
+     */
+    private final List<Vector> spawnLocations = new ArrayList<>();
+    /**
+     * Scratch position of newly spawned enemies and food
+     */
+    private final Vector spawnPosition = new Vector();
     /**
      * Maximum number of food that can spawn without any enemies dying
      */
@@ -72,6 +84,218 @@ public class GameEngine {
     private int foodCount;
     //endregion
 
+    //region Spatial indexes
+    /**
+     * Side length of the spatial grid cells
+     */
+    private static final double GRID_CELL_SIZE = 64;
+    /**
+     * Spatial index of the snake segment centers, owner is the Snake and tag the segment index
+     */
+    private SpatialGrid segmentGrid;
+    /**
+     * Nearest-neighbour index of the food on the screen, kept up to date as food spawns and is eaten
+     */
+    private FoodIndex foodIndex;
+    /**
+     * Side length of the cells of the free space grid used to spawn food
+     */
+    private static final double FREE_CELL_SIZE = 16;
+    /**
+     * Sampler of the positions not covered by the player, used to spawn food
+     */
+    private FreeSpaceSampler freeSpace;
+    /**
+     * Reusable filter of the food an enemy may target
+     */
+    private final TargetFilter targetFilter = new TargetFilter();
+    /**
+     * Reusable result of spatial grid queries
+     */
+    private final SpatialGrid.Cursor cursor = new SpatialGrid.Cursor();
+    //endregion
+
+    //region World
+    /**
+     * Side length of the chunks the world is divided into
+     */
+    private static final double CHUNK_SIZE = 512;
+    /**
+     * Upper bound of the number of cells of the free space grid
+     */
+    private static final int MAX_FREE_CELLS = 16384;
+    /**
+     * Width of the world
+     */
+    private double worldWidth;
+    /**
+     * Height of the world
+     */
+    private double worldHeight;
+    /**
+     * True if the world is larger than the screen and the camera follows the player
+     */
+    private boolean largeWorld;
+    /**
+     * Distances of the enemies from the camera
+     */
+    private final WorldChunks chunks = new WorldChunks(CHUNK_SIZE);
+    //endregion
+
+    //region Level of detail
+    /**
+     * Reduced enemies move their whole body only once in this many ticks, see {@link #planDetail}
+     */
+    private static final int OFFSCREEN_BODY_INTERVAL = 3;
+    /**
+     * Off-screen enemies closer to the screen than this are Reduced, further ones move only their
+     * head and record its path, see {@link #planDetail}
+     */
+    private static final double PATH_MARGIN = 512;
+    /**
+     * Path enemies up to this many chunks from the camera are updated every tick
+     */
+    private static final int ACTIVE_DISTANCE = 1;
+    /**
+     * Path enemies up to this many chunks from the camera are updated at a reduced rate, further
+     * enemies are suspended until the camera comes closer
+     */
+    private static final int REDUCED_DISTANCE = 3;
+    /**
+     * Enemies updated at a reduced rate move once in this many ticks, covering all of them
+     */
+    private static final int REDUCED_INTERVAL = 4;
+    /**
+     * Visible part of the world, the camera centered on the player's head
+     */
+    private final Viewport viewport = new Viewport();
+    /**
+     * Number of simulated ticks
+     */
+    private long tick;
+    //endregion
+
+    //region Pools
+    /**
+     * Maximum number of pooled objects of each kind
+     */
+    private static final int POOL_CAPACITY = 4096;
+    /**
+     * Released food, reused for newly spawned food
+     */
+    private final ObjectPool<Food> foodPool = new ObjectPool<Food>(POOL_CAPACITY) {
+        @Override
+        protected Food create() {
+            return new Food();
+        }
+    };
+    /**
+     * Released snakes together with their bodies, reused for newly spawned snakes
+     */
+    private final ObjectPool<Snake> snakePool = new ObjectPool<Snake>(POOL_CAPACITY) {
+        @Override
+        protected Snake create() {
+            return new Snake(new SnakeBody(0, 0, 16, 0), SnakeType.Passive);
+        }
+    };
+    /**
+     * Food eaten since the enemies last planned, enemies may still hold it as their target
+     */
+    private final List<Food> eatenFood = new ArrayList<>();
+    //endregion
+
+    //region Recording
+    /**
+     * Recorder of the player input, null if the game is not recorded
+     */
+    private InputRecorder recorder;
+    /**
+     * Timings of the recent ticks
+     */
+    private final TickProfiler profiler = new TickProfiler();
+    //endregion
+
+    //region AI scheduling
+    /**
+     * Enemies choose a new target only once in this many ticks and steer toward it in between
+     */
+    private static final int PLAN_INTERVAL = 5;
+    /**
+     * Types new enemies are chosen from
+     */
+    private static final SnakeType[] ENEMY_TYPES = {SnakeType.Aggressive, SnakeType.Passive, SnakeType.Hybrid};
+    /**
+     * Number of enemies spawned so far, used to spread re-planning of enemies across ticks
+     */
+    private int spawnedEnemies;
+    //endregion
+
+    //region Parallel update
+    /**
+     * Threads updating the enemies, null if the enemies are updated on the calling thread
+     */
+    private WorkerPool workers;
+    /**
+     * Scratch objects of each thread taking part in the enemy update
+     */
+    private final ThreadLocal<WorkerContext> contexts = new ThreadLocal<WorkerContext>() {
+        @Override
+        protected WorkerContext initialValue() {
+            return new WorkerContext();
+        }
+    };
+    /**
+     * True for each enemy that has chosen a new target this tick
+     */
+    private boolean[] planned = new boolean[16];
+    /**
+     * Closest food found by each re-planning enemy, null if no food was acceptable
+     */
+    private Food[] plannedFood = new Food[16];
+    /**
+     * True for each re-planning enemy that decided to attack the player
+     */
+    private boolean[] plannedAttack = new boolean[16];
+    /**
+     * True for each enemy that crashed into the player this tick
+     */
+    private boolean[] crashed = new boolean[16];
+    /**
+     * Ticks between two updates of each enemy, 0 if it is suspended
+     */
+    private int[] intervals = new int[16];
+    /**
+     * Number of ticks each enemy moves by this tick, 0 if it is not updated this tick
+     */
+    private int[] steps = new int[16];
+    /**
+     * Fidelity each enemy is moved with this tick
+     */
+    private DetailLevel[] details = new DetailLevel[16];
+    /**
+     * True for each Reduced enemy that moves its whole body this tick
+     */
+    private boolean[] bodyDue = new boolean[16];
+    /**
+     * Chooses new targets of a range of enemies
+     */
+    private final WorkerPool.RangeTask planTask = new WorkerPool.RangeTask() {
+        @Override
+        public void run(int from, int to) {
+            planEnemies(from, to);
+        }
+    };
+    /**
+     * Moves a range of enemies and checks them for collision with the player
+     */
+    private final WorkerPool.RangeTask moveTask = new WorkerPool.RangeTask() {
+        @Override
+        public void run(int from, int to) {
+            moveEnemies(from, to);
+        }
+    };
+    //endregion
+
     //region GameObjects
     /**
      * Reference to the player's Snake
@@ -84,7 +308,7 @@ public class GameEngine {
     /**
      * List of food present on the screen
      */
-    private List<Food> food;
+    private FoodStore food;
     //endregion
 
     //region Player movement
@@ -99,9 +323,16 @@ public class GameEngine {
     //endregion
 
     /**
-     * Create a new GameEngine
+     * Create a new GameEngine for a screen of given dimensions
+     * <p>
+     * The world is the size of the screen unless the config asks for a larger one
+     *
+     * @param screenWidth  width of the screen
+     * @param screenHeight height of the screen
      */
-    public GameEngine() {
+    public GameEngine(double screenWidth, double screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
     }
 
     //region Public methods
@@ -111,7 +342,7 @@ public class GameEngine {
      *
      * @return current player score
      */
-    public static int getScore() {
+    public int getScore() {
         return score;
     }
 
@@ -120,26 +351,105 @@ public class GameEngine {
      *
      * @return current game state
      */
-    public static GameState getCurrentState() {
+    public GameState getCurrentState() {
         return currentState;
     }
 
     /**
-     * Initialize the game
+     * Get the remaining game time
+     *
+     * @return remaining time ticks
+     */
+    public int getTimeLeft() {
+        return timeLeft;
+    }
+
+    /**
+     * Get the number of ticks simulated since the game was initialized
+     *
+     * @return number of simulated ticks
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Get a hash of the current game state, used to check that a replay reached the same state
+     * <p>
+     * Covers the tick, score, player head position, number of enemies and their head positions
+     * and number of food. Must only be called on the thread running the game, between two ticks
+     *
+     * @return state digest
+     */
+    public long getStateDigest() {
+        long digest = mix(0, tick);
+        digest = mix(digest, score);
+        digest = mix(digest, Double.doubleToLongBits(playerSnake.getHeadX()));
+        digest = mix(digest, Double.doubleToLongBits(playerSnake.getHeadY()));
+        digest = mix(digest, enemySnakes.size());
+        for (int index = 0; index < enemySnakes.size(); index++) {
+            Snake snake = enemySnakes.get(index);
+            digest = mix(digest, Double.doubleToLongBits(snake.getHeadX()));
+            digest = mix(digest, Double.doubleToLongBits(snake.getHeadY()));
+        }
+        return mix(digest, food.size());
+    }
+
+    /**
+     * Get the profiler measuring the phases of every tick
+     *
+     * @return tick profiler
+     */
+    public TickProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Record the player input of the following games, the recording starts with the next
+     * {@link #init(GameConfig)}
+     *
+     * @param recorder input recorder, null to stop recording
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Initialize the game with the default parameters
      */
     public void init() {
+        init(new GameConfig());
+    }
+
+    /**
+     * Initialize the game
+     *
+     * @param config parameters of the game
+     */
+    public void init(GameConfig config) {
+        this.config = config;
+        random = new Random(config.getSeed());
+        releaseAll();
         enemySnakes = new ArrayList<>();
-        food = new ArrayList<>();
-        target = new Vector(500, 700);
+        food = new FoodStore();
+        target = new Vector();
         direction = new Vector(1, 0);
         score = 0;
-        timeLeft = 1800;
-        foodLimit = 25;
+        timeLeft = config.getGameLength();
+        foodLimit = config.getFoodLimit();
         foodCount = 0;
+        tick = 0;
 
+        createWorkers();
+        createWorld();
+        createGrids();
+        if (recorder != null) {
+            recorder.start(config, viewport.getWidth(), viewport.getHeight());
+        }
         createSnake();
-        addEnemySnakes(5);
-        addFood(25);
+        updateCamera();
+        addEnemySnakes(config.getEnemyCount());
+        addFood(config.getFoodLimit());
         currentState = GameState.Running;
     }
 
@@ -147,15 +457,35 @@ public class GameEngine {
      * Main game update function
      */
     public void update() {
+        tick++;
+        profiler.start(ProfilePhase.Tick);
+
+        profiler.start(ProfilePhase.Time);
         updateTime();
+        profiler.stop(ProfilePhase.Time);
 
+        profiler.start(ProfilePhase.Player);
         updatePlayerPosition();
+        profiler.stop(ProfilePhase.Player);
 
+        profiler.start(ProfilePhase.Enemies);
         updateEnemyPositions();
+        profiler.stop(ProfilePhase.Enemies);
 
+        profiler.start(ProfilePhase.Collisions);
         checkForCollisions();
+        profiler.stop(ProfilePhase.Collisions);
 
+        profiler.start(ProfilePhase.Cleanup);
         removeDeadEnemies();
+        profiler.stop(ProfilePhase.Cleanup);
+
+        profiler.stop(ProfilePhase.Tick);
+
+        // A recording ends with the game
+        if (recorder != null && currentState != GameState.Running) {
+            recorder.finish(this);
+        }
     }
     //endregion
 
@@ -163,32 +493,175 @@ public class GameEngine {
 
     /**
      * Make each enemy follow some point based on its type
+     * <p>
+     * Enemies only read the shared game state while they plan and move, so both can run in
+     * parallel. Everything shared (food assignment, random choices, kills and score) is applied
+     * afterwards in enemy order, which keeps the result the same as the sequential update
      */
     private void updateEnemyPositions() {
-        for (Snake snake : enemySnakes) {
-            Vector dir = new Vector();
+        int count = enemySnakes.size();
+        ensureIntentCapacity(count);
+
+        forEachEnemy(count, planTask);
+        applyPlans(count);
+        recycleEatenFood();
+
+        forEachEnemy(count, moveTask);
+
+        // If enemy snake collides with player, kill it and give the player 50 points
+        for (int index = 0; index < count; index++) {
+            if (crashed[index]) {
+                score += 50;
+                enemySnakes.get(index).kill();
+            }
+        }
+
+        // Player is checked against the new enemy positions, suspended enemies are too far and
+        // the bodies of enemies moving only their head are left behind
+        for (int index = 0; index < count; index++) {
+            Snake snake = enemySnakes.get(index);
+            if (intervals[index] != 0 && snake.getDetail() != DetailLevel.Path) {
+                indexSegments(snake);
+            }
+        }
+    }
+
+    /**
+     * Run a task over all enemies, on the worker threads if there are any
+     *
+     * @param count number of enemies
+     * @param task  task processing a range of enemies
+     */
+    private void forEachEnemy(int count, WorkerPool.RangeTask task) {
+        if (workers != null) {
+            workers.forRange(count, task);
+        } else {
+            task.run(0, count);
+        }
+    }
+
+    /**
+     * Find new targets of the enemies that are due to re-plan
+     *
+     * @param from first enemy index
+     * @param to   index after the last enemy
+     */
+    private void planEnemies(int from, int to) {
+        WorkerContext context = contexts.get();
+
+        for (int index = from; index < to; index++) {
+            Snake snake = enemySnakes.get(index);
+            planned[index] = false;
+
+            // Enemies far from the camera are updated less often and with less detail
+            planDetail(index, snake);
+            if (steps[index] == 0) continue;
+
             if (snake.getType() == SnakeType.Passive) {
                 // Find the closest source of food that isn't being taken by another snake
                 // If the food source is too close to an enemy, bail
                 // If no food is safe to take, focus a random one
-                dir = getSnakeDirection(snake, false);
+                planTarget(index, snake, false, context);
             } else if (snake.getType() == SnakeType.Hybrid) {
                 // Find the closest available food source and follow it
-                dir = getSnakeDirection(snake, true);
-            } else if (snake.getType() == SnakeType.Aggressive) {
+                planTarget(index, snake, true, context);
+            }
+        }
+    }
+
+    /**
+     * Move a range of enemies and check whether they crashed into the player
+     *
+     * @param from first enemy index
+     * @param to   index after the last enemy
+     */
+    private void moveEnemies(int from, int to) {
+        WorkerContext context = contexts.get();
+        Vector dir = context.direction;
+
+        for (int index = from; index < to; index++) {
+            Snake snake = enemySnakes.get(index);
+            crashed[index] = false;
+            if (steps[index] == 0) continue;
+
+            if (snake.getType() == SnakeType.Aggressive) {
                 // Just follow the same target as the player
-                dir = Vector.sub(Vector.add(target, direction), snake.getHead().getCenter());
+                dir.set(target.getX() + direction.getX() - snake.getHeadX(),
+                        target.getY() + direction.getY() - snake.getHeadY());
                 dir.setMag(20);
+            } else {
+                getSnakeDirection(snake, dir);
+            }
+
+            // Enemies updated at a reduced rate catch up on the skipped ticks at once
+            if (steps[index] > 1) {
+                dir.mult(steps[index]);
             }
 
-            moveEnemy(snake, dir);
+            moveEnemy(snake, dir, details[index], bodyDue[index]);
 
-            // If enemy snake collides with player, kill it and give the player 50 points
-            if (collision(snake, playerSnake)) {
-                score += 50;
-                snake.kill();
+            crashed[index] = collision(snake, playerSnake, context.cursor);
+        }
+    }
+
+    /**
+     * Return the food eaten since the last planning to the pool
+     * <p>
+     * Enemies updated at a reduced rate or not at all skip planning, so they may still hold eaten
+     * food as their target. The pool hands the food out again at a new position, so these enemies
+     * drop their target first and choose a new one the next time they plan
+     */
+    private void recycleEatenFood() {
+        if (eatenFood.isEmpty()) return;
+
+        for (int index = 0; index < enemySnakes.size(); index++) {
+            Snake snake = enemySnakes.get(index);
+            Food current = snake.getTarget();
+            if (current != null && current.isEaten()) {
+                snake.setTarget(null);
             }
         }
+
+        for (int i = 0; i < eatenFood.size(); i++) {
+            foodPool.release(eatenFood.get(i));
+        }
+        eatenFood.clear();
+    }
+
+    /**
+     * Return all objects of the previous game to the pools
+     */
+    private void releaseAll() {
+        if (food != null) {
+            for (int i = 0; i < food.size(); i++) {
+                foodPool.release(food.get(i));
+            }
+            food.clear();
+            for (Snake snake : enemySnakes) {
+                snakePool.release(snake);
+            }
+            snakePool.release(playerSnake);
+        }
+        recycleEatenFood();
+    }
+
+    /**
+     * Make sure the per-enemy results fit given number of enemies
+     *
+     * @param count number of enemies
+     */
+    private void ensureIntentCapacity(int count) {
+        if (planned.length >= count) return;
+
+        int capacity = Math.max(count, planned.length * 2);
+        planned = new boolean[capacity];
+        plannedFood = new Food[capacity];
+        plannedAttack = new boolean[capacity];
+        crashed = new boolean[capacity];
+        intervals = new int[capacity];
+        steps = new int[capacity];
+        details = new DetailLevel[capacity];
+        bodyDue = new boolean[capacity];
     }
 
     /**
@@ -198,28 +671,93 @@ public class GameEngine {
      * @param touchY y touch coordinate
      */
     public void calculateFollowPoint(double touchX, double touchY) {
-        Vector old = new Vector(this.target);
+        if (recorder != null) {
+            recorder.record(tick, touchX, touchY);
+        }
 
-        Vector direction = new Vector(touchX - old.getX(), touchY - old.getY());
+        direction.set(touchX - target.getX(), touchY - target.getY());
         direction.setMag(10);
+    }
 
-        this.direction = direction;
+    /**
+     * Set up the world dimensions, the camera size and the enemy spawn locations
+     */
+    private void createWorld() {
+        worldWidth = Math.max(screenWidth, config.getWorldWidth());
+        worldHeight = Math.max(screenHeight, config.getWorldHeight());
+        largeWorld = worldWidth > screenWidth || worldHeight > screenHeight;
+
+        viewport.set(0, 0, screenWidth, screenHeight);
+
+        spawnLocations.clear();
+        spawnLocations.add(new Vector(-50, -50));
+        spawnLocations.add(new Vector(worldWidth / 2, -50));
+        spawnLocations.add(new Vector(worldWidth + 5, -50));
+        spawnLocations.add(new Vector(-50, worldHeight + 50));
+        spawnLocations.add(new Vector(worldWidth / 2, worldHeight + 50));
+        spawnLocations.add(new Vector(worldWidth + 50, worldHeight + 50));
+        spawnLocations.add(new Vector(worldWidth + 50, worldHeight / 2));
     }
 
     /**
-     * Create a new Snake with 11 Segments and make initialize its direction to (0,10)
+     * Create the spatial indexes covering the whole world
      */
-    private void createSnake() {
-        List<Segment> body = new ArrayList<>();
+    private void createGrids() {
+        segmentGrid = new SpatialGrid(worldWidth, worldHeight, GRID_CELL_SIZE);
+        foodIndex = new FoodIndex(worldWidth, worldHeight, GRID_CELL_SIZE);
+
+        // Large worlds use coarser cells to keep collecting the free cells cheap
+        double freeCellSize = Math.max(FREE_CELL_SIZE, Math.sqrt(worldWidth * worldHeight / MAX_FREE_CELLS));
+        freeSpace = new FreeSpaceSampler(worldWidth, worldHeight, freeCellSize);
+    }
+
+    /**
+     * Center the camera on the player's head, keeping it within the world
+     */
+    private void updateCamera() {
+        double width = viewport.getWidth();
+        double height = viewport.getHeight();
+        double left = Math.max(0, Math.min(worldWidth - width, playerSnake.getHeadX() - width / 2));
+        double top = Math.max(0, Math.min(worldHeight - height, playerSnake.getHeadY() - height / 2));
+
+        viewport.set(left, top, left + width, top + height);
+        chunks.setCamera(viewport);
+    }
+
+    /**
+     * Start the worker threads if the game is configured to update enemies in parallel
+     */
+    private void createWorkers() {
+        if (workers != null && workers.getParallelism() != config.getParallelism()) {
+            shutdown();
+        }
+        if (workers == null && config.getParallelism() > 1) {
+            workers = new WorkerPool(config.getParallelism());
+        }
+    }
 
-        Segment head = new Segment(300, 600, 16);
-        body.add(head);
-        for (int i = 1; i < 10; i++) {
-            body.add(new Segment(body.get(i - 1)));
+    /**
+     * Stop the worker threads, the engine has to be initialized again before the next update
+     */
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
         }
+    }
 
-        playerSnake = new Snake(body, SnakeType.Player);
-        direction = new Vector(0, 1);
+    /**
+     * Create a new Snake and make initialize its direction to (0,10)
+     */
+    private void createSnake() {
+        // The player starts in the middle of a large world
+        double originX = (worldWidth - viewport.getWidth()) / 2;
+        double originY = (worldHeight - viewport.getHeight()) / 2;
+
+        playerSnake = snakePool.acquire().reset(SnakeType.Player, originX + 300, originY + 600, config.getSnakeLength())
+                .setBodyModel(config.getBodyModel());
+        target.set(originX + 500, originY + 700);
+        direction.set(0, 1);
         direction.setMag(10);
     }
 
@@ -230,18 +768,57 @@ public class GameEngine {
      */
     private void addEnemySnakes(int count) {
         for (int i = 0; i < count; i++) {
-            List<Segment> body = new ArrayList<>();
+            Vector pos = getSpawnPosition(spawnPosition);
+
+            SnakeType type = getEnemyType();
+            Snake snake = snakePool.acquire().reset(type, pos.getX(), pos.getY(), config.getSnakeLength())
+                    .setBodyModel(config.getBodyModel());
+            // Give every enemy a different re-planning phase
+            snake.setNextPlanTick(tick + spawnedEnemies++ % PLAN_INTERVAL);
+            enemySnakes.add(snake);
+        }
+    }
 
-            Vector pos = spawnLocations.get(random.nextInt(spawnLocations.size() - 1));
+    /**
+     * Choose the type of a new enemy according to the bot mix of the config
+     *
+     * @return Type of Snake (Aggressive, Passive, Hybrid)
+     */
+    private SnakeType getEnemyType() {
+        int total = 0;
+        for (SnakeType type : ENEMY_TYPES) {
+            total += config.getBotWeight(type);
+        }
 
-            Segment head = new Segment(pos, 16);
-            body.add(head);
-            for (int j = 1; j < 10; j++) {
-                body.add(new Segment(body.get(j - 1)));
-            }
+        int pick = random.nextInt(total);
+        for (SnakeType type : ENEMY_TYPES) {
+            pick -= config.getBotWeight(type);
+            if (pick < 0) return type;
+        }
+        return ENEMY_TYPES[ENEMY_TYPES.length - 1];
+    }
+
+    /**
+     * Choose where a new enemy appears
+     * <p>
+     * In a world the size of the screen enemies come from the spawn locations around the edges,
+     * in a large world they appear anywhere out of the camera's sight
+     *
+     * @param out Vector the position is written into
+     * @return the out Vector
+     */
+    private Vector getSpawnPosition(Vector out) {
+        if (!largeWorld) {
+            return out.set(spawnLocations.get(random.nextInt(spawnLocations.size() - 1)));
+        }
+
+        out.set(random.nextDouble() * worldWidth, random.nextDouble() * worldHeight);
 
-            enemySnakes.add(new Snake(body, SnakeType.values()[random.nextInt(3) + 1]));
+        // Move positions the player could see to the other half of the world
+        if (viewport.contains(out.getX(), out.getY(), CHUNK_SIZE)) {
+            out.set((out.getX() + worldWidth / 2) % worldWidth, (out.getY() + worldHeight / 2) % worldHeight);
         }
+        return out;
     }
 
     /**
@@ -250,8 +827,18 @@ public class GameEngine {
      * @param count number of food to be created
      */
     private void addFood(int count) {
+        if (count <= 0) return;
+
+        // Food never spawns under the player, the whole batch shares one occupancy grid
+        freeSpace.clear();
+        SnakeBody body = playerSnake.getBody();
+        for (int i = 0; i < body.size(); i++) {
+            freeSpace.occupy(body.getCenterX(i), body.getCenterY(i), playerSnake.getBodySize());
+        }
+
         for (int i = 0; i < count; i++) {
-            food.add(new Food(getEmptyPosition()));
+            freeSpace.sample(random, spawnPosition);
+            spawnFoodAt(spawnPosition.getX(), spawnPosition.getY());
             foodCount++;
         }
     }
@@ -259,42 +846,16 @@ public class GameEngine {
 
     //region Update Helper-Methods
 
-    /**
-     * Generate a random empty position (not occupied by any other object)
-     *
-     * @return free position Vector
-     */
-    private Vector getEmptyPosition() {
-        // Start with a random position
-        Vector apple = new Vector(random.nextInt(1080), random.nextInt(1584));
-        // Repeat until the position isn't free
-        // Can be really slow if the snakes take large portion of the screen
-        while (true) {
-            if (screenSize == null) {
-                break;
-            }
-            boolean free = true;
-            for (Segment segment : playerSnake.getSnake()) {
-                if (Vector.dist(segment.getCenter(), apple) <= playerSnake.getBodySize()) {
-                    free = false;
-                }
-            }
-            if (free) {
-                return apple;
-            }
-            apple = new Vector(random.nextInt((int) Math.floor(screenSize.getX())), random.nextInt((int) Math.floor(screenSize.getY())));
-        }
-
-        // Dummy value before screensize is set
-        return apple;
-    }
-
     /**
      * Create new food at given position and add it to the list
-     * @param position food spawn position
+     *
+     * @param x food spawn x coordinate
+     * @param y food spawn y coordinate
      */
-    private void spawnFoodAt(Vector position) {
-        food.add(new Food(position));
+    private void spawnFoodAt(double x, double y) {
+        Food apple = foodPool.acquire().reset(x, y);
+        food.add(apple);
+        foodIndex.add(apple);
     }
 
     /**
@@ -320,26 +881,17 @@ public class GameEngine {
      * Recalculate the target of player movement and update the snake body position
      */
     private void updatePlayerPosition() {
-        List<Segment> body = playerSnake.getSnake();
-
         // Get the direction of movement
-        target.setX(target.getX() + direction.getX());
-        target.setY(target.getY() + direction.getY());
+        Vector.addInto(target, direction, target);
 
-        // Cut the head off
-        Segment head = playerSnake.getHead();
+        // Make the head follow touch and the body follow the head
+        playerSnake.moveTo(target.getX(), target.getY());
 
-        // Make the head follow touch
-        head.follow(target.getX(), target.getY());
-        head.update();
+        updateCamera();
 
-        for (int i = 0; i < body.size() - 1; i++) {
-            // Make the rest of the tail follow the head
-            Segment current = body.get(i);
-            Segment next = body.get(i + 1);
-            current.follow(next.getA().getX(), next.getA().getY());
-            current.update();
-        }
+        // Enemies are checked against the new player position
+        segmentGrid.clear();
+        indexSegments(playerSnake);
     }
 
     /**
@@ -359,16 +911,40 @@ public class GameEngine {
 
     /**
      * Check whether two snakes are colliding
+     * <p>
+     * Package-private so that it can be benchmarked on its own
+     *
+     * @param src colliding Snake
+     * @param other collider Snake
+     * @return True if src Snake crashed into other Snake
+     */
+    boolean collision(Snake src, Snake other) {
+        return collision(src, other, cursor);
+    }
+
+    /**
+     * Check whether two snakes are colliding, using given cursor for the grid query
      *
      * @param src colliding Snake
      * @param other collider Snake
+     * @param cursor cursor of the calling thread
      * @return True if src Snake crashed into other Snake
      */
-    private boolean collision(Snake src, Snake other) {
-        Segment head = src.getHead();
+    private boolean collision(Snake src, Snake other, SpatialGrid.Cursor cursor) {
+        double headX = src.getHeadX();
+        double headY = src.getHeadY();
+
+        // Snakes far apart are rejected by their bounding boxes before the grid is queried
+        if (!other.mayTouch(headX, headY, src.getBodySize())) return false;
 
-        for (Segment segment : other.getSnake()) {
-            if (Vector.dist(head.getCenter(), segment.getCenter()) < (src.getBodySize() + other.getBodySize())) {
+        double radius = src.getBodySize() + other.getBodySize();
+        double radiusSq = radius * radius;
+
+        // Only segments in the cells around the head can be close enough
+        int count = segmentGrid.query(headX, headY, radius, cursor);
+        for (int i = 0; i < count; i++) {
+            int id = cursor.get(i);
+            if (segmentGrid.getOwner(id) == other && segmentGrid.distSq(id, headX, headY) < radiusSq) {
                 return true;
             }
         }
@@ -376,6 +952,38 @@ public class GameEngine {
         return false;
     }
 
+    /**
+     * Insert centers of all segments of given snake into the segment grid
+     *
+     * @param snake indexed Snake
+     */
+    private void indexSegments(Snake snake) {
+        SnakeBody body = snake.getBody();
+        for (int i = 0; i < body.size(); i++) {
+            segmentGrid.insert(snake, i, body.getCenterX(i), body.getCenterY(i));
+        }
+    }
+
+    /**
+     * Check for collision of snake with food and consume all food within reach
+     *
+     * @param snake feeding Snake
+     * @return number of food the snake has consumed
+     */
+    private int eat(Snake snake) {
+        int first = eatenFood.size();
+        int eaten = foodIndex.removeWithin(snake.getHeadX(), snake.getHeadY(), snake.getBodySize(), cursor, eatenFood);
+
+        for (int i = first; i < first + eaten; i++) {
+            Food apple = eatenFood.get(i);
+            apple.consume();
+            food.remove(apple);
+            snake.eat();
+        }
+
+        return eaten;
+    }
+
     /**
      * Kill the player if he gets out of bounds
      */
@@ -392,24 +1000,35 @@ public class GameEngine {
      * @return True if player attempts to move out of bounds
      */
     private boolean outOfBounds(Vector target) {
-        if (screenSize == null) return false;
-        return target.getX() < 0 || target.getY() < 0 || target.getX() > screenSize.getX() || target.getY() > screenSize.getY();
+        return target.getX() < 0 || target.getY() < 0 || target.getX() > worldWidth || target.getY() > worldHeight;
     }
 
     /**
      * Check if player snake collides with any food source
      */
     private void checkPlayerFoodCollision() {
-        if (playerSnake.eat(food)) {
-            foodCount--;
-            score++;
-        }
+        int eaten = eat(playerSnake);
+        foodCount -= eaten;
+        score += eaten;
 
         // If needed, add food
         if (foodCount < foodLimit) {
             addFood(foodLimit - foodCount);
         }
     }
+
+    /**
+     * Add a value to a state digest
+     *
+     * @param digest digest so far
+     * @param value  added value
+     * @return new digest
+     */
+    private static long mix(long digest, long value) {
+        // FNV-1a style step over the whole value, then spread the bits
+        digest = (digest ^ value) * 0x100000001B3L;
+        return digest ^ (digest >>> 29);
+    }
     //endregion
 
     //region EnemyMovement
@@ -422,25 +1041,27 @@ public class GameEngine {
     private int checkPlayerEnemyCollisions() {
         int respawnCount = 0;
 
-        // Check for enemy collisions
-        for (Snake snake : enemySnakes) {
+        // Check for enemy collisions, suspended enemies neither move nor meet the player
+        for (int index = 0; index < enemySnakes.size(); index++) {
+            if (intervals[index] == 0) continue;
+
+            Snake snake = enemySnakes.get(index);
             // Remove eaten food
-            if (snake.eat(food)) {
-                foodCount--;
-            }
+            foodCount -= eat(snake);
 
             // Check for player - enemy collision
-            if (collision(playerSnake, snake)) {
+            if (!config.isPlayerInvulnerable() && collision(playerSnake, snake)) {
                 currentState = GameState.Lost;
                 playerSnake.kill();
             }
 
             // Replace dead snakes with food
             if (snake.getState() == SnakeState.DEAD) {
-                for (Segment segment : snake.getSnake()) {
+                SnakeBody body = snake.getBody();
+                for (int j = 0; j < body.size(); j++) {
                     // Spawn food a little bit off center
                     for (int i = 0; i < (int) snake.getBodySize() / 10; i++) {
-                        spawnFoodAt(Vector.add(segment.getCenter(), new Vector(random.nextInt(20), random.nextInt(20))));
+                        spawnFoodAt(body.getCenterX(j) + random.nextInt(20), body.getCenterY(j) + random.nextInt(20));
                         foodCount++;
                     }
                 }
@@ -455,34 +1076,97 @@ public class GameEngine {
      * Remove each dead snake from the enemy snake list
      */
     private void removeDeadEnemies() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            enemySnakes.removeIf(e -> e.getState() == SnakeState.DEAD);
+        Iterator<Snake> iterator = enemySnakes.iterator();
+        while (iterator.hasNext()) {
+            Snake snake = iterator.next();
+            if (snake.getState() == SnakeState.DEAD) {
+                iterator.remove();
+                snakePool.release(snake);
+            }
         }
     }
 
     /**
-     * Based on the enemy type calculate its movement direction
+     * Find the food the enemy heads to or decide to attack the player
+     * <p>
+     * Targets are re-planned only on the enemy's scheduled tick, or earlier if the target food
+     * has been eaten, in between the enemy keeps steering toward its cached target. The decision
+     * is only recorded here and applied by {@link #applyPlans(int)}
      *
+     * @param index enemy index
      * @param snake target Snake
      * @param unsafe if true enemy will not try to avoid the player
-     * @return new direction Vector
+     * @param context scratch objects of the calling thread
      */
-    private Vector getSnakeDirection(Snake snake, boolean unsafe) {
-        Food closest = getClosestFood(snake, unsafe);
-        Vector dir;
+    private void planTarget(int index, Snake snake, boolean unsafe, WorkerContext context) {
+        Food current = snake.getTarget();
+        if (tick < snake.getNextPlanTick() && current != null && !current.isEaten()) return;
+
+        Food closest = getClosestFood(snake, unsafe, context.filter, context.cursor);
+        double headX = snake.getHeadX();
+        double headY = snake.getHeadY();
 
         // (In unsafe mode only) If player's head is closer than the closest food, attack it
-        if (unsafe && Vector.dist(closest, playerSnake.getHead().getCenter()) < (Vector.dist(closest, snake.getHead().getCenter()) + playerSnake.getBodySize())) {
-            dir = Vector.sub(playerSnake.getHead().getCenter(), snake.getHead().getCenter());
-        } else {
+        boolean attack = false;
+        if (unsafe && closest != null) {
+            // Both sides are non-negative, so they can be compared squared with a single root
+            double reach = closest.dist(headX, headY) + playerSnake.getBodySize();
+            attack = closest.distSq(playerSnake.getHeadX(), playerSnake.getHeadY()) < reach * reach;
+        }
+
+        planned[index] = true;
+        plannedFood[index] = closest;
+        plannedAttack[index] = attack;
+    }
+
+    /**
+     * Assign the targets found by {@link #planTarget(int, Snake, boolean, WorkerContext)} in
+     * enemy order
+     *
+     * @param count number of enemies
+     */
+    private void applyPlans(int count) {
+        for (int index = 0; index < count; index++) {
+            if (!planned[index]) continue;
+
+            Snake snake = enemySnakes.get(index);
+            Food closest = plannedFood[index];
+            plannedFood[index] = null;
+
+            // Early re-planning keeps the phase of the schedule
+            if (tick >= snake.getNextPlanTick()) {
+                snake.setNextPlanTick(tick + PLAN_INTERVAL);
+            }
+
             // Choose a random one if nothing is safe to eat
             if (closest == null) {
-                closest = food.get(random.nextInt(food.size() - 1));
-                closest.take(snake);
-            } else {
+                closest = food.get(random.nextInt(food.size()));
+            }
+            if (!plannedAttack[index]) {
                 closest.take(snake);
             }
-            dir = Vector.sub(closest, snake.getHead().getCenter());
+
+            snake.setTarget(closest).setAttacking(plannedAttack[index]);
+        }
+    }
+
+    /**
+     * Calculate the movement direction of an enemy toward its planned target
+     *
+     * @param snake target Snake
+     * @param dir Vector the new direction is written into
+     * @return new direction Vector
+     */
+    private Vector getSnakeDirection(Snake snake, Vector dir) {
+        double headX = snake.getHeadX();
+        double headY = snake.getHeadY();
+
+        if (snake.isAttacking()) {
+            // The player moves, so its head is followed live rather than cached
+            dir.set(playerSnake.getHeadX() - headX, playerSnake.getHeadY() - headY);
+        } else {
+            Food goal = snake.getTarget();
+            dir.set(goal.getX() - headX, goal.getY() - headY);
         }
 
         dir.setMag(20);
@@ -493,66 +1177,228 @@ public class GameEngine {
 
     /**
      * Find the closest food source based on proximity from the snake and type of the snake
+     * <p>
+     * Package-private so that it can be benchmarked on its own
      *
      * @param snake target Snake
      * @param unsafe if true enemy will not try to avoid the player
      * @return reference to the closest Food
      */
-    private Food getClosestFood(Snake snake, boolean unsafe) {
-        double minDist = Double.MAX_VALUE;
-        Food closest = null;
+    Food getClosestFood(Snake snake, boolean unsafe) {
+        return getClosestFood(snake, unsafe, targetFilter, cursor);
+    }
 
-        for (Food food : this.food) {
-            double dist = Vector.dist(snake.getHead().getCenter(), food);
+    /**
+     * Find the closest food given snake may target, using given scratch objects
+     *
+     * @param snake  target Snake
+     * @param unsafe if true enemy will not try to avoid the player
+     * @param filter filter of the calling thread
+     * @param cursor cursor of the calling thread
+     * @return closest acceptable Food or null if there is none
+     */
+    private Food getClosestFood(Snake snake, boolean unsafe, TargetFilter filter, SpatialGrid.Cursor cursor) {
+        filter.set(snake, unsafe);
 
-            // If food is not safe to eat and snake is playing safe, don't follow it
-            if (!unsafe && !safeToEat(food)) {
-                continue;
+        // Food right under the head is ignored
+        return foodIndex.nearest(snake.getHeadX(), snake.getHeadY(), 15, Double.POSITIVE_INFINITY, filter, cursor);
+    }
+
+    //region Getters & Setters
+
+    /**
+     * Update the enemy position and snake body
+     *
+     * @param snake reference to an enemy Snake
+     * @param dir direction Vector
+     * @param detail fidelity the snake is moved with
+     * @param bodyDue if true a Reduced snake moves its whole body this tick
+     */
+    private void moveEnemy(Snake snake, Vector dir, DetailLevel detail, boolean bodyDue) {
+        double x = snake.getHeadX() + dir.getX();
+        double y = snake.getHeadY() + dir.getY();
+        SnakeBody body = snake.getBody();
+        HeadPath path = snake.getPath();
+
+        if (snake.getDetail() != DetailLevel.Path && detail == DetailLevel.Path) {
+            // The path starts with the current body so it can be laid back along it any time
+            path.clear();
+            path.ensureCapacity(body.size() + 1);
+            for (int i = 0; i < body.size(); i++) {
+                path.add(body.getStartX(i), body.getStartY(i));
             }
-            if (dist < minDist && dist > 15 && (!food.isTaken() || food.isMine(snake))) {
-                minDist = dist;
-                closest = food;
+            path.add(body.getEndX(body.size() - 1), body.getEndY(body.size() - 1));
+        } else if (snake.getDetail() == DetailLevel.Path && detail != DetailLevel.Path) {
+            // Coming closer, the body reappears where the head has been
+            body.rebuild(path);
+            path.clear();
+        }
+        snake.setDetail(detail);
+
+        // Make the enemy follow the closest food source and the body follow the head
+        if (detail == DetailLevel.Path) {
+            body.moveHead(x, y);
+            path.ensureCapacity(body.size() + 1);
+            path.record(body.getEndX(body.size() - 1), body.getEndY(body.size() - 1), body.getSegmentLength());
+        } else if (detail == DetailLevel.Reduced && !bodyDue) {
+            body.moveHead(x, y);
+        } else {
+            snake.moveTo(x, y);
+        }
+    }
+
+    /**
+     * Decide how often and with what fidelity an enemy is updated, based on its distance
+     * <p>
+     * The levels form a single ladder, the first one that applies is used:
+     * <ol>
+     * <li>Full, every tick: the snake may be on the screen or touch the player, or it has a
+     * Trail body that is cheap at any distance. Drawing and player collisions never lose
+     * precision</li>
+     * <li>Reduced, every tick: the snake is off-screen but within {@link #PATH_MARGIN} of it.
+     * The head moves every tick, the whole body once in {@link #OFFSCREEN_BODY_INTERVAL} ticks</li>
+     * <li>Path, every tick: the snake is further, but within {@link #ACTIVE_DISTANCE} chunks of
+     * the camera. Only the head moves and its path is recorded, the body is rebuilt along it
+     * once the snake comes back to a closer level</li>
+     * <li>Path, once in {@link #REDUCED_INTERVAL} ticks: within {@link #REDUCED_DISTANCE}
+     * chunks. The head catches up on the skipped ticks at once</li>
+     * <li>Suspended: further enemies neither plan, move nor collide</li>
+     * </ol>
+     * Worlds no larger than the screen never lower the update rate. Updates and Reduced body
+     * moves are staggered across snakes by their index.
+     *
+     * @param index index of the enemy
+     * @param snake enemy Snake
+     */
+    private void planDetail(int index, Snake snake) {
+        DetailLevel detail;
+        int interval = 1;
+
+        if (snake.getBodyModel() == BodyModel.Trail || isOnScreen(snake) || canReachPlayer(snake)) {
+            detail = DetailLevel.Full;
+        } else if (viewport.contains(snake.getHeadX(), snake.getHeadY(), getReach(snake) + PATH_MARGIN)) {
+            detail = DetailLevel.Reduced;
+        } else {
+            detail = DetailLevel.Path;
+            if (largeWorld) {
+                int distance = chunks.getDistance(snake.getHeadX(), snake.getHeadY());
+                interval = distance <= ACTIVE_DISTANCE ? 1 : distance <= REDUCED_DISTANCE ? REDUCED_INTERVAL : 0;
             }
         }
 
-        return closest;
+        intervals[index] = interval;
+        steps[index] = interval != 0 && (tick + index) % interval == 0 ? interval : 0;
+        details[index] = detail;
+        bodyDue[index] = detail == DetailLevel.Reduced && (tick + index) % OFFSCREEN_BODY_INTERVAL == 0;
     }
 
-    //region Getters & Setters
-
     /**
-     * Check if food is in safe distance from player's head (at least 250px)
+     * Check whether an enemy may touch the player
      *
-     * @param food reference to the Food
-     * @return True if food is in a safe distance from player's head
+     * @param snake enemy Snake
+     * @return True if the snakes are close enough to collide
      */
-    private boolean safeToEat(Vector food) {
-        if (Vector.dist(this.playerSnake.getHead().getCenter(), food) < playerSnake.getBodySize() + 250) {
-            return false;
-        }
+    private boolean canReachPlayer(Snake snake) {
+        double dx = snake.getHeadX() - playerSnake.getHeadX();
+        double dy = snake.getHeadY() - playerSnake.getHeadY();
+        double contact = getReach(snake) + getReach(playerSnake);
+        return dx * dx + dy * dy <= contact * contact;
+    }
 
-        return true;
+    /**
+     * Check whether any part of the snake may be visible
+     *
+     * @param snake tested Snake
+     * @return True if the snake can be on the screen
+     */
+    public boolean isOnScreen(Snake snake) {
+        return viewport.contains(snake.getHeadX(), snake.getHeadY(), getReach(snake));
     }
 
     /**
-     * Update the enemy position and snake body
+     * Get the distance from the head within which the whole snake lies
      *
-     * @param snake reference to an enemy Snake
-     * @param dir direction Vector
+     * @param snake measured Snake
+     * @return reach of the snake
      */
-    private void moveEnemy(Snake snake, Vector dir) {
-        Vector head = snake.getHead().getCenter();
+    private double getReach(Snake snake) {
+        SnakeBody body = snake.getBody();
+
+        // No segment can be further from the head than the length of the body
+        return body.size() * body.getSegmentLength() + snake.getBodySize() * 2;
+    }
 
-        // Make the enemy follow the closest food source
-        snake.getHead().follow(head.getX() + dir.getX(), head.getY() + dir.getY());
-        snake.getHead().update();
+    /**
+     * Scratch objects of one thread updating the enemies
+     */
+    private class WorkerContext {
+        /**
+         * Filter of the food an enemy may target
+         */
+        private final TargetFilter filter = new TargetFilter();
+        /**
+         * Result of spatial grid queries
+         */
+        private final SpatialGrid.Cursor cursor = new SpatialGrid.Cursor();
+        /**
+         * Direction of the moved enemy
+         */
+        private final Vector direction = new Vector();
+    }
 
-        for (int i = 0; i < snake.getSnake().size() - 1; i++) {
-            // Make the rest of the tail follow the head
-            Segment current = snake.getSnake().get(i);
-            Segment next = snake.getSnake().get(i + 1);
-            current.follow(next.getA().getX(), next.getA().getY());
-            current.update();
+    /**
+     * Filter of the food an enemy may target
+     * <p>
+     * Food has to be free or already assigned to the snake, and snakes playing safe only target
+     * food in a safe distance from player's head (at least 250px)
+     */
+    private class TargetFilter implements FoodIndex.Filter {
+        /**
+         * Snake looking for food
+         */
+        private Snake snake;
+        /**
+         * If true the snake does not try to avoid the player
+         */
+        private boolean unsafe;
+        /**
+         * x coordinate of player's head
+         */
+        private double playerX;
+        /**
+         * y coordinate of player's head
+         */
+        private double playerY;
+        /**
+         * Squared safe distance from player's head
+         */
+        private double safeDistSq;
+
+        /**
+         * Prepare the filter for a search of given snake
+         *
+         * @param snake  target Snake
+         * @param unsafe if true enemy will not try to avoid the player
+         */
+        void set(Snake snake, boolean unsafe) {
+            this.snake = snake;
+            this.unsafe = unsafe;
+
+            // Player's head is the same for the whole search
+            playerX = playerSnake.getHeadX();
+            playerY = playerSnake.getHeadY();
+            double safeDist = playerSnake.getBodySize() + 250;
+            safeDistSq = safeDist * safeDist;
+        }
+
+        @Override
+        public boolean accept(Food food) {
+            if (food.isTaken() && !food.isMine(snake)) {
+                return false;
+            }
+
+            // If food is not safe to eat and snake is playing safe, don't follow it
+            return unsafe || food.distSq(playerX, playerY) >= safeDistSq;
         }
     }
 
@@ -575,12 +1421,41 @@ public class GameEngine {
     }
 
     /**
-     * Get the list of Food on screen
+     * Get the Food on screen
      *
-     * @return list of Food
+     * @return store of Food
      */
-    public List<Food> getFood() {
+    public FoodStore getFood() {
         return food;
     }
+
+    /**
+     * Get the visible part of the world
+     * <p>
+     * Must only be read on the thread running the game
+     *
+     * @return camera centered on the player's head
+     */
+    public Viewport getCamera() {
+        return viewport;
+    }
+
+    /**
+     * Get the width of the world
+     *
+     * @return world width
+     */
+    public double getWorldWidth() {
+        return worldWidth;
+    }
+
+    /**
+     * Get the height of the world
+     *
+     * @return world height
+     */
+    public double getWorldHeight() {
+        return worldHeight;
+    }
     //endregion
 }
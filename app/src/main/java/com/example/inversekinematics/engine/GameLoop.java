@@ -0,0 +1,270 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.GameState;
+
+/**
+ * Runs the game simulation on its own thread with a fixed time step
+ * <p>
+ * The loop accumulates real time and advances the engine in fixed ticks, so the simulation rate
+ * does not depend on how fast frames are drawn. After every tick the game state is copied into a
+ * {@link GameSnapshot} and published to the renderer through a triple buffer: the loop always
+ * writes into a snapshot nobody reads, and the renderer always reads the latest complete one.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class GameLoop implements Runnable {
+    /**
+     * Length of one simulation tick in nanoseconds (20 ticks per second)
+     */
+    public static final long TICK_NANOS = 50_000_000L;
+    /**
+     * Maximum time simulated at once, prevents endless catching up after a long stall
+     */
+    private static final long MAX_FRAME_NANOS = 5 * TICK_NANOS;
+    /**
+     * Reference to the game engine
+     */
+    private final GameEngine engine;
+    /**
+     * Guards the snapshot exchange and the pending touch input
+     */
+    private final Object lock = new Object();
+    /**
+     * Called on the loop thread once the game is over
+     */
+    private Listener listener;
+    /**
+     * Thread running the simulation
+     */
+    private Thread thread;
+    /**
+     * True while the loop should keep running
+     */
+    private volatile boolean running;
+    /**
+     * Number of simulated ticks
+     */
+    private long tick;
+
+    //region Snapshots
+    /**
+     * Snapshot being filled by the loop
+     */
+    private GameSnapshot writing = new GameSnapshot();
+    /**
+     * Latest published snapshot not yet picked up by the renderer
+     */
+    private GameSnapshot ready = new GameSnapshot();
+    /**
+     * Snapshot currently used by the renderer
+     */
+    private GameSnapshot reading = new GameSnapshot();
+    /**
+     * True if the ready snapshot is newer than the one being read
+     */
+    private boolean fresh;
+    /**
+     * Most recently published snapshot, used for interpolation of the next one
+     */
+    private GameSnapshot last;
+    //endregion
+
+    //region Input
+    /**
+     * True if there is touch input waiting for the next tick
+     */
+    private boolean touched;
+    /**
+     * x coordinate of the pending touch
+     */
+    private double touchX;
+    /**
+     * y coordinate of the pending touch
+     */
+    private double touchY;
+    //endregion
+
+    /**
+     * Create a new loop driving given engine
+     *
+     * @param engine initialized game engine
+     */
+    public GameLoop(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Set the callback notified when the game is over
+     *
+     * @param listener game over callback
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Get the profiler of the simulated engine, also used to measure drawing
+     *
+     * @return tick profiler
+     */
+    public TickProfiler getProfiler() {
+        return engine.getProfiler();
+    }
+
+    /**
+     * Publish the initial state and start the simulation thread
+     */
+    public void start() {
+        if (running) return;
+
+        if (last == null) {
+            publish();
+        }
+
+        running = true;
+        thread = new Thread(this, "GameLoop");
+        thread.start();
+    }
+
+    /**
+     * Stop the simulation thread and wait for it to finish
+     */
+    public void stop() {
+        running = false;
+        if (thread == null) return;
+
+        if (thread != Thread.currentThread()) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    /**
+     * Queue touch input, it is applied at the beginning of the next tick
+     *
+     * @param x x touch coordinate
+     * @param y y touch coordinate
+     */
+    public void touch(double x, double y) {
+        synchronized (lock) {
+            touchX = x;
+            touchY = y;
+            touched = true;
+        }
+    }
+
+    /**
+     * Get the latest published snapshot
+     * <p>
+     * The returned snapshot stays valid until the next call of this method
+     *
+     * @return latest game snapshot
+     */
+    public GameSnapshot acquireSnapshot() {
+        synchronized (lock) {
+            if (fresh) {
+                GameSnapshot swap = reading;
+                reading = ready;
+                ready = swap;
+                fresh = false;
+            }
+            return reading;
+        }
+    }
+
+    /**
+     * Main loop, advances the game in fixed ticks until it is over or stopped
+     */
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator = Math.min(accumulator + now - previous, MAX_FRAME_NANOS);
+            previous = now;
+
+            while (running && accumulator >= TICK_NANOS) {
+                step();
+                accumulator -= TICK_NANOS;
+            }
+
+            if (!running) break;
+
+            // Sleep until the next tick is due
+            long sleep = (TICK_NANOS - accumulator) / 1_000_000L;
+            try {
+                Thread.sleep(Math.max(1, sleep));
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Simulate one tick and publish its snapshot
+     */
+    private void step() {
+        applyInput();
+        engine.update();
+        publish();
+
+        if (engine.getCurrentState() != GameState.Running) {
+            running = false;
+            if (listener != null) {
+                listener.onGameEnded(engine.getCurrentState(), engine.getScore());
+            }
+        }
+    }
+
+    /**
+     * Hand the pending touch input over to the engine
+     */
+    private void applyInput() {
+        double x, y;
+        synchronized (lock) {
+            if (!touched) return;
+            x = touchX;
+            y = touchY;
+            touched = false;
+        }
+        // Touches are in screen coordinates, the camera may have scrolled over a large world
+        Viewport camera = engine.getCamera();
+        engine.calculateFollowPoint(x + camera.getLeft(), y + camera.getTop());
+    }
+
+    /**
+     * Capture the game state and swap it with the ready snapshot
+     */
+    private void publish() {
+        writing.capture(engine, last, tick++, System.nanoTime());
+
+        synchronized (lock) {
+            GameSnapshot swap = ready;
+            ready = writing;
+            writing = swap;
+            fresh = true;
+            last = ready;
+        }
+    }
+
+    /**
+     * Callback for the end of the game
+     */
+    public interface Listener {
+        /**
+         * Called on the loop thread when the game has been lost or timed out
+         *
+         * @param state final game state
+         * @param score final player score
+         */
+        void onGameEnded(GameState state, int score);
+    }
+}
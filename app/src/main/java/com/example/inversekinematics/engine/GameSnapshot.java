@@ -0,0 +1,454 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Food;
+import com.example.inversekinematics.classes.Snake;
+import com.example.inversekinematics.classes.SnakeBody;
+import com.example.inversekinematics.enums.GameState;
+import com.example.inversekinematics.enums.SnakeType;
+
+import java.util.Arrays;
+
+/**
+ * Copy of everything needed to draw one game tick
+ * <p>
+ * Snapshots are filled on the game loop thread and handed over to the renderer, which never
+ * touches the live game objects. Besides the segment centers of the captured tick, each snapshot
+ * keeps the matching centers of the previous tick so the renderer can interpolate between them.
+ * Snake 0 is always the player and the last segment of every snake is its head. Only the player
+ * and the enemies and food near the camera are captured, positions stay in world coordinates.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class GameSnapshot {
+    /**
+     * Distance from the camera within which food is captured, covers the drawn food radius
+     */
+    private static final double FOOD_MARGIN = 32;
+    /**
+     * Time of the capture in nanoseconds
+     */
+    private long time;
+    /**
+     * Number of the captured tick
+     */
+    private long tick;
+    /**
+     * Player score at the time of the capture
+     */
+    private int score;
+    /**
+     * Remaining game time ticks at the time of the capture
+     */
+    private int timeLeft;
+    /**
+     * Game state at the time of the capture
+     */
+    private GameState state;
+
+    //region Camera
+    /**
+     * Left edge of the camera
+     */
+    private float cameraLeft;
+    /**
+     * Top edge of the camera
+     */
+    private float cameraTop;
+    /**
+     * Left edge of the camera in the previous tick
+     */
+    private float prevCameraLeft;
+    /**
+     * Top edge of the camera in the previous tick
+     */
+    private float prevCameraTop;
+    /**
+     * Width of the world
+     */
+    private float worldWidth;
+    /**
+     * Height of the world
+     */
+    private float worldHeight;
+    //endregion
+
+    //region Snakes
+    /**
+     * Number of captured snakes
+     */
+    private int snakeCount;
+    /**
+     * Captured snakes, only used to match snakes between two snapshots
+     */
+    private Snake[] owners = new Snake[8];
+    /**
+     * Type of each snake
+     */
+    private SnakeType[] types = new SnakeType[8];
+    /**
+     * Body size of each snake
+     */
+    private float[] sizes = new float[8];
+    /**
+     * Index of the first segment of each snake
+     */
+    private int[] offsets = new int[8];
+    /**
+     * Number of segments of each snake
+     */
+    private int[] lengths = new int[8];
+    //endregion
+
+    //region Segments
+    /**
+     * Number of captured segments of all snakes together
+     */
+    private int segmentCount;
+    /**
+     * x coordinates of the segment centers
+     */
+    private float[] x = new float[128];
+    /**
+     * y coordinates of the segment centers
+     */
+    private float[] y = new float[128];
+    /**
+     * x coordinates of the segment centers in the previous tick
+     */
+    private float[] prevX = new float[128];
+    /**
+     * y coordinates of the segment centers in the previous tick
+     */
+    private float[] prevY = new float[128];
+    //endregion
+
+    //region Food
+    /**
+     * Number of captured food
+     */
+    private int foodCount;
+    /**
+     * x coordinates of the food
+     */
+    private float[] foodX = new float[64];
+    /**
+     * y coordinates of the food
+     */
+    private float[] foodY = new float[64];
+    //endregion
+
+    /**
+     * Copy the current state of the game into this snapshot
+     *
+     * @param engine game to capture
+     * @param last   previously captured snapshot used for interpolation, may be null
+     * @param tick   number of the captured tick
+     * @param time   time of the capture in nanoseconds
+     */
+    public void capture(GameEngine engine, GameSnapshot last, long tick, long time) {
+        this.time = time;
+        this.tick = tick;
+        this.score = engine.getScore();
+        this.timeLeft = engine.getTimeLeft();
+        this.state = engine.getCurrentState();
+
+        Viewport camera = engine.getCamera();
+        this.cameraLeft = (float) camera.getLeft();
+        this.cameraTop = (float) camera.getTop();
+        this.prevCameraLeft = last != null ? last.cameraLeft : cameraLeft;
+        this.prevCameraTop = last != null ? last.cameraTop : cameraTop;
+        this.worldWidth = (float) engine.getWorldWidth();
+        this.worldHeight = (float) engine.getWorldHeight();
+
+        snakeCount = 0;
+        segmentCount = 0;
+        captureSnake(engine.getPlayerSnake(), last);
+        for (Snake snake : engine.getEnemySnakes()) {
+            if (engine.isOnScreen(snake)) {
+                captureSnake(snake, last);
+            }
+        }
+
+        FoodStore food = engine.getFood();
+        int size = food.size();
+        if (foodX.length < size) {
+            foodX = Arrays.copyOf(foodX, size * 2);
+            foodY = Arrays.copyOf(foodY, size * 2);
+        }
+        foodCount = 0;
+        for (int i = 0; i < size; i++) {
+            Food apple = food.get(i);
+            if (camera.contains(apple.getX(), apple.getY(), FOOD_MARGIN)) {
+                foodX[foodCount] = (float) apple.getX();
+                foodY[foodCount] = (float) apple.getY();
+                foodCount++;
+            }
+        }
+    }
+
+    /**
+     * Append one snake to the snapshot and match its segments with the previous snapshot
+     *
+     * @param snake captured Snake
+     * @param last  previously captured snapshot, may be null
+     */
+    private void captureSnake(Snake snake, GameSnapshot last) {
+        SnakeBody body = snake.getBody();
+        int length = body.size();
+
+        if (snakeCount == owners.length) {
+            int capacity = snakeCount * 2;
+            owners = Arrays.copyOf(owners, capacity);
+            types = Arrays.copyOf(types, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        if (segmentCount + length > x.length) {
+            int capacity = (segmentCount + length) * 2;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            prevX = Arrays.copyOf(prevX, capacity);
+            prevY = Arrays.copyOf(prevY, capacity);
+        }
+
+        int index = snakeCount++;
+        owners[index] = snake;
+        types[index] = snake.getType();
+        sizes[index] = snake.getBodySize();
+        offsets[index] = segmentCount;
+        lengths[index] = length;
+
+        // Segments are matched from the head, since snakes only ever grow at the tail
+        int lastIndex = last != null ? last.indexOf(snake, index) : -1;
+        int shift = lastIndex != -1 ? length - last.lengths[lastIndex] : 0;
+
+        for (int i = 0; i < length; i++) {
+            int k = segmentCount + i;
+            x[k] = (float) body.getCenterX(i);
+            y[k] = (float) body.getCenterY(i);
+
+            int j = i - shift;
+            if (lastIndex != -1 && j >= 0 && j < last.lengths[lastIndex]) {
+                prevX[k] = last.x[last.offsets[lastIndex] + j];
+                prevY[k] = last.y[last.offsets[lastIndex] + j];
+            } else {
+                prevX[k] = x[k];
+                prevY[k] = y[k];
+            }
+        }
+        segmentCount += length;
+    }
+
+    /**
+     * Find the index of given snake in this snapshot
+     *
+     * @param snake searched Snake
+     * @param hint  index to try first
+     * @return index of the snake or -1 if it was not captured
+     */
+    private int indexOf(Snake snake, int hint) {
+        if (hint < snakeCount && owners[hint] == snake) {
+            return hint;
+        }
+        for (int i = 0; i < snakeCount; i++) {
+            if (owners[i] == snake) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the time of the capture
+     *
+     * @return capture time in nanoseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Get the number of the captured tick
+     *
+     * @return tick number
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Get the player score
+     *
+     * @return captured player score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the remaining game time ticks
+     *
+     * @return captured remaining time ticks
+     */
+    public int getTimeLeft() {
+        return timeLeft;
+    }
+
+    /**
+     * Get the game state
+     *
+     * @return captured game state
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Get the left edge of the camera between the previous and the captured tick
+     *
+     * @param alpha 0 for the previous tick, 1 for the captured tick
+     * @return interpolated left edge
+     */
+    public float getCameraLeft(float alpha) {
+        return prevCameraLeft + (cameraLeft - prevCameraLeft) * alpha;
+    }
+
+    /**
+     * Get the top edge of the camera between the previous and the captured tick
+     *
+     * @param alpha 0 for the previous tick, 1 for the captured tick
+     * @return interpolated top edge
+     */
+    public float getCameraTop(float alpha) {
+        return prevCameraTop + (cameraTop - prevCameraTop) * alpha;
+    }
+
+    /**
+     * Get the width of the world
+     *
+     * @return world width
+     */
+    public float getWorldWidth() {
+        return worldWidth;
+    }
+
+    /**
+     * Get the height of the world
+     *
+     * @return world height
+     */
+    public float getWorldHeight() {
+        return worldHeight;
+    }
+
+    /**
+     * Get the number of snakes, the player included
+     *
+     * @return number of snakes
+     */
+    public int getSnakeCount() {
+        return snakeCount;
+    }
+
+    /**
+     * Get the number of segments of all snakes together
+     *
+     * @return number of segments
+     */
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Get the type of a snake
+     *
+     * @param snake snake index
+     * @return Type of Snake
+     */
+    public SnakeType getSnakeType(int snake) {
+        return types[snake];
+    }
+
+    /**
+     * Get the body size of a snake
+     *
+     * @param snake snake index
+     * @return body size
+     */
+    public float getSnakeSize(int snake) {
+        return sizes[snake];
+    }
+
+    /**
+     * Get the index of the first (tail) segment of a snake
+     *
+     * @param snake snake index
+     * @return segment index
+     */
+    public int getSnakeOffset(int snake) {
+        return offsets[snake];
+    }
+
+    /**
+     * Get the number of segments of a snake
+     *
+     * @param snake snake index
+     * @return number of segments
+     */
+    public int getSnakeLength(int snake) {
+        return lengths[snake];
+    }
+
+    /**
+     * Get the x coordinate of a segment center between the previous and the captured tick
+     *
+     * @param segment segment index
+     * @param alpha   0 for the previous tick, 1 for the captured tick
+     * @return interpolated x coordinate
+     */
+    public float getX(int segment, float alpha) {
+        return prevX[segment] + (x[segment] - prevX[segment]) * alpha;
+    }
+
+    /**
+     * Get the y coordinate of a segment center between the previous and the captured tick
+     *
+     * @param segment segment index
+     * @param alpha   0 for the previous tick, 1 for the captured tick
+     * @return interpolated y coordinate
+     */
+    public float getY(int segment, float alpha) {
+        return prevY[segment] + (y[segment] - prevY[segment]) * alpha;
+    }
+
+    /**
+     * Get the number of food
+     *
+     * @return number of food
+     */
+    public int getFoodCount() {
+        return foodCount;
+    }
+
+    /**
+     * Get the x coordinate of a food
+     *
+     * @param food food index
+     * @return x coordinate
+     */
+    public float getFoodX(int food) {
+        return foodX[food];
+    }
+
+    /**
+     * Get the y coordinate of a food
+     *
+     * @param food food index
+     * @return y coordinate
+     */
+    public float getFoodY(int food) {
+        return foodY[food];
+    }
+}
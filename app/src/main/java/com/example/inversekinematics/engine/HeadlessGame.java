@@ -0,0 +1,99 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.GameState;
+
+/**
+ * Runs the game on a plain JVM without any Android view or activity
+ * <p>
+ * Takes the place of the screen by giving the engine the screen dimensions and of the player by
+ * steering the player snake around the center of the world. Used by benchmarks and offline
+ * simulations, separate games can run concurrently on separate threads.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class HeadlessGame {
+    /**
+     * Number of ticks between two steering inputs of the autopilot
+     */
+    private static final int STEER_INTERVAL = 10;
+    /**
+     * Reference to the game engine
+     */
+    private final GameEngine engine;
+    /**
+     * Number of simulated ticks
+     */
+    private long tick;
+
+    /**
+     * Create a new headless game with given screen dimensions
+     * <p>
+     * The world is the size of the screen unless the config asks for a larger one
+     *
+     * @param width  width of the screen
+     * @param height height of the screen
+     */
+    public HeadlessGame(double width, double height) {
+        this.engine = new GameEngine(width, height);
+    }
+
+    /**
+     * Initialize the game with given parameters
+     *
+     * @param config parameters of the game
+     */
+    public void init(GameConfig config) {
+        engine.init(config);
+        tick = 0;
+    }
+
+    /**
+     * Steer the player and simulate one tick
+     */
+    public void step() {
+        if (tick % STEER_INTERVAL == 0) {
+            // Circle around the center of the world to stay in bounds
+            double worldWidth = engine.getWorldWidth();
+            double worldHeight = engine.getWorldHeight();
+            double angle = tick * 0.05;
+            double radius = Math.min(worldWidth, worldHeight) / 3;
+            engine.calculateFollowPoint(worldWidth / 2 + radius * Math.cos(angle), worldHeight / 2 + radius * Math.sin(angle));
+        }
+
+        engine.update();
+        tick++;
+    }
+
+    /**
+     * Simulate until the game is over or given number of ticks has passed
+     *
+     * @param maxTicks maximum number of simulated ticks
+     * @return number of simulated ticks
+     */
+    public long run(long maxTicks) {
+        long start = tick;
+        while (tick - start < maxTicks && engine.getCurrentState() == GameState.Running) {
+            step();
+        }
+        return tick - start;
+    }
+
+    /**
+     * Get the simulated game engine
+     *
+     * @return reference to the game engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Get the number of simulated ticks
+     *
+     * @return number of ticks
+     */
+    public long getTick() {
+        return tick;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.SnakeType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Compact binary log of a game's seed, parameters and player input
+ * <p>
+ * The engine is deterministic for a given seed, so the config and the touch points with the
+ * ticks they were applied in are enough to play the game again with {@link Replay}. Ticks are
+ * stored as variable-length deltas, a touch every tick costs 17 bytes.
+ * <p>
+ * Layout: magic, version, seed, config, screen size, then input records and an end record with
+ * the final tick, score and state digest used to verify the replay.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class InputRecorder {
+    /**
+     * First bytes of every recording ("SNKR")
+     */
+    static final int MAGIC = 0x534E4B52;
+    /**
+     * Version of the recording format
+     */
+    static final int VERSION = 6;
+    /**
+     * Record of one touch input
+     */
+    static final int INPUT = 1;
+    /**
+     * Record closing the recording
+     */
+    static final int END = 0;
+    /**
+     * Buffer holding the recording
+     */
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    /**
+     * Writer of the recording
+     */
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    /**
+     * Tick of the last recorded input
+     */
+    private long lastTick;
+    /**
+     * True once the header has been written
+     */
+    private boolean started;
+    /**
+     * True once the end record has been written
+     */
+    private boolean finished;
+
+    /**
+     * Write the header, called by the engine when a recorded game is initialized
+     * <p>
+     * A recorder holds only one game, any previous recording is discarded
+     *
+     * @param config parameters of the game
+     * @param width  width of the screen
+     * @param height height of the screen
+     */
+    void start(GameConfig config, double width, double height) {
+        bytes.reset();
+        lastTick = 0;
+        started = true;
+        finished = false;
+
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(config.getSeed());
+            out.writeInt(config.getEnemyCount());
+            out.writeInt(config.getFoodLimit());
+            out.writeInt(config.getSnakeLength());
+            out.writeInt(config.getGameLength());
+            out.writeDouble(config.getWorldWidth());
+            out.writeDouble(config.getWorldHeight());
+            out.writeByte(config.getBodyModel().ordinal());
+            out.writeInt(config.getBotWeight(SnakeType.Aggressive));
+            out.writeInt(config.getBotWeight(SnakeType.Passive));
+            out.writeInt(config.getBotWeight(SnakeType.Hybrid));
+            out.writeBoolean(config.isPlayerInvulnerable());
+            out.writeDouble(width);
+            out.writeDouble(height);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Append a touch input, called by the engine whenever the player direction changes
+     *
+     * @param tick tick the input is applied in
+     * @param x    x touch coordinate
+     * @param y    y touch coordinate
+     */
+    void record(long tick, double x, double y) {
+        if (!started || finished) return;
+
+        try {
+            out.writeByte(INPUT);
+            writeVarLong(tick - lastTick);
+            out.writeDouble(x);
+            out.writeDouble(y);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        lastTick = tick;
+    }
+
+    /**
+     * Close the recording with the current state of the game
+     * <p>
+     * Must be called on the thread running the game, between two ticks
+     *
+     * @param engine recorded game
+     */
+    public void finish(GameEngine engine) {
+        if (!started || finished) return;
+
+        try {
+            out.writeByte(END);
+            out.writeLong(engine.getTick());
+            out.writeInt(engine.getScore());
+            out.writeLong(engine.getStateDigest());
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        finished = true;
+    }
+
+    /**
+     * Check whether the recording has been closed
+     *
+     * @return True if {@link #finish(GameEngine)} has been called
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Get the size of the recording
+     *
+     * @return number of recorded bytes
+     */
+    public int size() {
+        return bytes.size();
+    }
+
+    /**
+     * Get a copy of the finished recording
+     *
+     * @return recorded bytes
+     */
+    public byte[] toByteArray() {
+        checkFinished();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write the finished recording to a stream
+     *
+     * @param stream target stream
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        checkFinished();
+        bytes.writeTo(stream);
+    }
+
+    /**
+     * Make sure the recording is complete before it is handed out
+     */
+    private void checkFinished() {
+        if (!finished) {
+            throw new IllegalStateException("Recording has not been finished");
+        }
+    }
+
+    /**
+     * Write a non-negative number in 7-bit groups, small numbers take a single byte
+     *
+     * @param value written number
+     * @throws IOException never, the recording is held in memory
+     */
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.BodyModel;
+import com.example.inversekinematics.enums.GameState;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Recording made by {@link InputRecorder}, played again headlessly
+ * <p>
+ * The replayed game is initialized with the recorded seed and config and the recorded touch
+ * input is applied at the same ticks, so it ends in the same state with the same score. Replays
+ * can run with any parallelism, which makes them a fixed workload for comparing engine changes.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class Replay {
+    /**
+     * Parameters of the recorded game
+     */
+    private final GameConfig config;
+    /**
+     * Width of the recorded screen
+     */
+    private final double width;
+    /**
+     * Height of the recorded screen
+     */
+    private final double height;
+    /**
+     * Number of recorded inputs
+     */
+    private int inputCount;
+    /**
+     * Tick of each input
+     */
+    private long[] ticks = new long[64];
+    /**
+     * x touch coordinate of each input
+     */
+    private double[] xs = new double[64];
+    /**
+     * y touch coordinate of each input
+     */
+    private double[] ys = new double[64];
+    /**
+     * Number of ticks the recorded game ran
+     */
+    private long finalTick;
+    /**
+     * Score at the end of the recording
+     */
+    private int finalScore;
+    /**
+     * Digest of the game state at the end of the recording
+     */
+    private long finalDigest;
+
+    /**
+     * Read a recording
+     *
+     * @param stream stream holding the recording
+     * @throws IOException if the stream cannot be read or does not hold a recording
+     */
+    public Replay(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+
+        if (in.readInt() != InputRecorder.MAGIC) {
+            throw new IOException("Not a game recording");
+        }
+        int version = in.readUnsignedByte();
+        if (version != InputRecorder.VERSION) {
+            throw new IOException("Unsupported recording version " + version);
+        }
+
+        config = new GameConfig();
+        try {
+            config.setSeed(in.readLong())
+                    .setEnemyCount(in.readInt())
+                    .setFoodLimit(in.readInt())
+                    .setSnakeLength(in.readInt())
+                    .setGameLength(in.readInt())
+                    .setWorldSize(in.readDouble(), in.readDouble())
+                    .setBodyModel(readBodyModel(in))
+                    .setBotMix(in.readInt(), in.readInt(), in.readInt())
+                    .setPlayerInvulnerable(in.readBoolean());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        width = in.readDouble();
+        height = in.readDouble();
+
+        long tick = 0;
+        int record;
+        while ((record = in.readUnsignedByte()) == InputRecorder.INPUT) {
+            tick += readVarLong(in);
+            addInput(tick, in.readDouble(), in.readDouble());
+        }
+        if (record != InputRecorder.END) {
+            throw new IOException("Unknown record " + record);
+        }
+
+        finalTick = in.readLong();
+        finalScore = in.readInt();
+        finalDigest = in.readLong();
+    }
+
+    /**
+     * Read a recording
+     *
+     * @param recording recorded bytes
+     * @throws IOException if the bytes do not hold a recording
+     */
+    public Replay(byte[] recording) throws IOException {
+        this(new ByteArrayInputStream(recording));
+    }
+
+    /**
+     * Play the recording on the calling thread
+     *
+     * @param parallelism number of threads updating the enemies
+     * @return game in the state at the end of the recording
+     */
+    public HeadlessGame play(int parallelism) {
+        HeadlessGame game = new HeadlessGame(width, height);
+        GameEngine engine = game.getEngine();
+        game.init(config.copy().setParallelism(parallelism));
+
+        try {
+            int next = 0;
+            while (engine.getTick() < finalTick && engine.getCurrentState() == GameState.Running) {
+                // Input is applied right before the tick it was recorded in
+                while (next < inputCount && ticks[next] == engine.getTick()) {
+                    engine.calculateFollowPoint(xs[next], ys[next]);
+                    next++;
+                }
+                engine.update();
+            }
+        } finally {
+            engine.shutdown();
+        }
+
+        return game;
+    }
+
+    /**
+     * Check whether a replayed game ended the same way as the recorded one
+     *
+     * @param game replayed game
+     * @return True if the final tick, score and state digest match the recording
+     */
+    public boolean matches(HeadlessGame game) {
+        GameEngine engine = game.getEngine();
+        return engine.getTick() == finalTick
+                && engine.getScore() == finalScore
+                && engine.getStateDigest() == finalDigest;
+    }
+
+    /**
+     * Get the parameters of the recorded game
+     *
+     * @return copy of the recorded config
+     */
+    public GameConfig getConfig() {
+        return config.copy();
+    }
+
+    /**
+     * Get the number of recorded inputs
+     *
+     * @return number of inputs
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * Get the number of ticks the recorded game ran
+     *
+     * @return final tick
+     */
+    public long getFinalTick() {
+        return finalTick;
+    }
+
+    /**
+     * Get the score at the end of the recording
+     *
+     * @return final score
+     */
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    /**
+     * Get the digest of the game state at the end of the recording
+     *
+     * @return final state digest
+     * @see GameEngine#getStateDigest()
+     */
+    public long getFinalDigest() {
+        return finalDigest;
+    }
+
+    /**
+     * Append one input
+     *
+     * @param tick tick the input is applied in
+     * @param x    x touch coordinate
+     * @param y    y touch coordinate
+     */
+    private void addInput(long tick, double x, double y) {
+        if (inputCount == ticks.length) {
+            int capacity = inputCount * 2;
+            ticks = Arrays.copyOf(ticks, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+        ticks[inputCount] = tick;
+        xs[inputCount] = x;
+        ys[inputCount] = y;
+        inputCount++;
+    }
+
+    /**
+     * Read the body model of the recorded snakes
+     *
+     * @param in recording stream
+     * @return body model
+     * @throws IOException if the stream cannot be read or holds an unknown model
+     */
+    private static BodyModel readBodyModel(DataInputStream in) throws IOException {
+        int model = in.readUnsignedByte();
+        if (model >= BodyModel.values().length) {
+            throw new IOException("Unknown body model " + model);
+        }
+        return BodyModel.values()[model];
+    }
+
+    /**
+     * Read a number written in 7-bit groups
+     *
+     * @param in recording stream
+     * @return read number
+     * @throws IOException if the stream cannot be read
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed tick delta");
+    }
+}
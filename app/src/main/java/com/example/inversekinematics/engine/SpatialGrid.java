@@ -0,0 +1,426 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Vector;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid spatial hash used as a broad phase for proximity queries
+ * <p>
+ * Every entry is an owner object, an integer tag and a position. Entries are bucketed into square
+ * cells, so a query only has to look at the cells around the queried point instead of every entry.
+ * Positions outside of the grid are clamped into the border cells, which keeps off-screen objects
+ * queryable without growing the grid.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class SpatialGrid {
+    /**
+     * Marker for an empty cell or the end of a cell chain
+     */
+    private static final int NONE = -1;
+    /**
+     * Side length of one cell
+     */
+    private final double cellSize;
+    /**
+     * Number of cell columns
+     */
+    private final int cols;
+    /**
+     * Number of cell rows
+     */
+    private final int rows;
+    /**
+     * First entry of each cell, entries of one cell are chained through {@link #next}
+     */
+    private final int[] cellHead;
+    /**
+     * Next entry in the same cell
+     */
+    private int[] next;
+    /**
+     * Owner of each entry, null once the entry has been removed
+     */
+    private Object[] owners;
+    /**
+     * Tag of each entry
+     */
+    private int[] tags;
+    /**
+     * x coordinate of each entry
+     */
+    private double[] xs;
+    /**
+     * y coordinate of each entry
+     */
+    private double[] ys;
+    /**
+     * Number of entries inserted since the last clear
+     */
+    private int size;
+    /**
+     * Number of removed entries still occupying storage
+     */
+    private int removed;
+
+    /**
+     * Create a new grid covering given area
+     *
+     * @param width    width of the covered area
+     * @param height   height of the covered area
+     * @param cellSize side length of one cell
+     */
+    public SpatialGrid(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellHead = new int[cols * rows];
+
+        int capacity = 64;
+        next = new int[capacity];
+        owners = new Object[capacity];
+        tags = new int[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+
+        clear();
+    }
+
+    /**
+     * Remove all entries from the grid
+     */
+    public void clear() {
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(owners, 0, size, null);
+        size = 0;
+        removed = 0;
+    }
+
+    /**
+     * Insert a new entry into the grid
+     *
+     * @param owner object the entry belongs to
+     * @param tag   additional integer identifying the entry within its owner
+     * @param x     x coordinate
+     * @param y     y coordinate
+     * @return id of the new entry
+     */
+    public int insert(Object owner, int tag, double x, double y) {
+        if (size == next.length) {
+            grow();
+        }
+
+        int id = size++;
+        int cell = cellRow(y) * cols + cellColumn(x);
+
+        owners[id] = owner;
+        tags[id] = tag;
+        xs[id] = x;
+        ys[id] = y;
+        next[id] = cellHead[cell];
+        cellHead[cell] = id;
+
+        return id;
+    }
+
+    /**
+     * Remove an entry so that it is no longer returned by queries
+     *
+     * @param id id of the entry
+     */
+    public void remove(int id) {
+        if (owners[id] != null) {
+            owners[id] = null;
+            removed++;
+        }
+    }
+
+    /**
+     * Drop the storage of removed entries
+     * <p>
+     * Ids of the remaining entries change, so no ids may be held across this call
+     */
+    public void compact() {
+        Arrays.fill(cellHead, NONE);
+
+        int live = 0;
+        for (int id = 0; id < size; id++) {
+            if (owners[id] == null) continue;
+
+            owners[live] = owners[id];
+            tags[live] = tags[id];
+            xs[live] = xs[id];
+            ys[live] = ys[id];
+
+            int cell = cellRow(ys[live]) * cols + cellColumn(xs[live]);
+            next[live] = cellHead[cell];
+            cellHead[cell] = live;
+            live++;
+        }
+
+        Arrays.fill(owners, live, size, null);
+        size = live;
+        removed = 0;
+    }
+
+    /**
+     * Get the number of entries that have not been removed
+     *
+     * @return number of live entries
+     */
+    public int getLiveCount() {
+        return size - removed;
+    }
+
+    /**
+     * Get the number of removed entries still occupying storage
+     *
+     * @return number of removed entries
+     */
+    public int getRemovedCount() {
+        return removed;
+    }
+
+    /**
+     * Collect all entries from the cells overlapping the square around given point
+     * <p>
+     * The result is a superset of the entries within the radius, exact distance checks are left
+     * to the caller
+     *
+     * @param x      x coordinate of the center
+     * @param y      y coordinate of the center
+     * @param radius query radius
+     * @param out    cursor the entry ids are written into
+     * @return number of collected entries
+     */
+    public int query(double x, double y, double radius, Cursor out) {
+        out.reset();
+
+        int minCol = cellColumn(x - radius);
+        int maxCol = cellColumn(x + radius);
+        int minRow = cellRow(y - radius);
+        int maxRow = cellRow(y + radius);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                collect(row * cols + col, out);
+            }
+        }
+
+        return out.size();
+    }
+
+    /**
+     * Collect all entries from the cells exactly given number of cells away from the cell
+     * containing given point
+     * <p>
+     * Entries found in ring k are always further than (k - 1) * cell size from the point, which
+     * allows nearest neighbour searches to stop early once the best squared distance is at most
+     * (k * cell size) squared
+     *
+     * @param x    x coordinate of the center
+     * @param y    y coordinate of the center
+     * @param ring distance in cells, 0 being the center cell itself
+     * @param out  cursor the entry ids are written into
+     * @return number of collected entries
+     */
+    public int queryRing(double x, double y, int ring, Cursor out) {
+        out.reset();
+
+        int centerCol = cellColumn(x);
+        int centerRow = cellRow(y);
+
+        int minRow = Math.max(0, centerRow - ring);
+        int maxRow = Math.min(rows - 1, centerRow + ring);
+        int minCol = Math.max(0, centerCol - ring);
+        int maxCol = Math.min(cols - 1, centerCol + ring);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+            for (int col = minCol; col <= maxCol; col++) {
+                // Only the outline of the square belongs to the ring
+                if (edgeRow || col == centerCol - ring || col == centerCol + ring) {
+                    collect(row * cols + col, out);
+                }
+            }
+        }
+
+        return out.size();
+    }
+
+    /**
+     * Get the number of rings needed to cover the whole grid from any point
+     *
+     * @return number of rings
+     */
+    public int getRingCount() {
+        return Math.max(cols, rows);
+    }
+
+    /**
+     * Get the side length of one cell
+     *
+     * @return cell size
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Get the owner of an entry
+     *
+     * @param id id of the entry
+     * @return owner of the entry or null if it was removed
+     */
+    public Object getOwner(int id) {
+        return owners[id];
+    }
+
+    /**
+     * Get the tag of an entry
+     *
+     * @param id id of the entry
+     * @return tag of the entry
+     */
+    public int getTag(int id) {
+        return tags[id];
+    }
+
+    /**
+     * Get the x coordinate of an entry
+     *
+     * @param id id of the entry
+     * @return x coordinate
+     */
+    public double getX(int id) {
+        return xs[id];
+    }
+
+    /**
+     * Get the y coordinate of an entry
+     *
+     * @param id id of the entry
+     * @return y coordinate
+     */
+    public double getY(int id) {
+        return ys[id];
+    }
+
+    /**
+     * Calculate the squared distance between an entry and given point
+     * <p>
+     * Used as the narrow phase after a broad phase query
+     *
+     * @param id id of the entry
+     * @param x  x coordinate of the point
+     * @param y  y coordinate of the point
+     * @return squared distance
+     */
+    public double distSq(int id, double x, double y) {
+        return Vector.distSq(xs[id], ys[id], x, y);
+    }
+
+    /**
+     * Append all live entries of given cell to the cursor
+     *
+     * @param cell index of the cell
+     * @param out  cursor the entry ids are written into
+     */
+    private void collect(int cell, Cursor out) {
+        for (int id = cellHead[cell]; id != NONE; id = next[id]) {
+            if (owners[id] != null) {
+                out.add(id);
+            }
+        }
+    }
+
+    /**
+     * Convert x coordinate to a column index, clamped into the grid
+     *
+     * @param x x coordinate
+     * @return column index
+     */
+    private int cellColumn(double x) {
+        int col = (int) Math.floor(x / cellSize);
+        return Math.max(0, Math.min(cols - 1, col));
+    }
+
+    /**
+     * Convert y coordinate to a row index, clamped into the grid
+     *
+     * @param y y coordinate
+     * @return row index
+     */
+    private int cellRow(double y) {
+        int row = (int) Math.floor(y / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    /**
+     * Double the capacity of the entry storage
+     */
+    private void grow() {
+        int capacity = next.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+    }
+
+    /**
+     * Reusable list of entry ids returned by grid queries
+     * <p>
+     * Each caller keeps its own cursor so that queries do not allocate
+     */
+    public static class Cursor {
+        /**
+         * Collected entry ids
+         */
+        private int[] ids = new int[64];
+        /**
+         * Number of collected entry ids
+         */
+        private int count;
+
+        /**
+         * Get the entry id at given position
+         *
+         * @param index position in the cursor
+         * @return entry id
+         */
+        public int get(int index) {
+            return ids[index];
+        }
+
+        /**
+         * Get the number of collected entries
+         *
+         * @return number of entries
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Forget all collected entries
+         */
+        private void reset() {
+            count = 0;
+        }
+
+        /**
+         * Append an entry id
+         *
+         * @param id entry id
+         */
+        private void add(int id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = id;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.ProfilePhase;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the duration and allocations of the phases of recent ticks and frames
+ * <p>
+ * Every phase keeps its last {@link #CAPACITY} samples in a ring buffer. Each phase must only be
+ * measured by one thread, which needs no locking, while any other thread may read the statistics
+ * at the same time. Allocations are taken from an optional {@link MemoryProbe}, as there is no
+ * portable way to count them.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class TickProfiler {
+    /**
+     * Number of samples kept for each phase, must be a power of two
+     */
+    public static final int CAPACITY = 256;
+    /**
+     * Mask converting a sample number to its position in the ring buffer
+     */
+    private static final int MASK = CAPACITY - 1;
+    /**
+     * Measured phases
+     */
+    private static final ProfilePhase[] PHASES = ProfilePhase.values();
+    /**
+     * Durations in nanoseconds, one ring buffer per phase
+     */
+    private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length * CAPACITY);
+    /**
+     * Allocations, one ring buffer per phase
+     */
+    private final AtomicLongArray allocations = new AtomicLongArray(PHASES.length * CAPACITY);
+    /**
+     * Number of samples ever recorded for each phase
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(PHASES.length);
+    /**
+     * Sum of all durations ever recorded for each phase
+     */
+    private final AtomicLongArray totals = new AtomicLongArray(PHASES.length);
+    /**
+     * Start time of the running measurement of each phase, only used by the measuring thread
+     */
+    private final long[] startNanos = new long[PHASES.length];
+    /**
+     * Allocations at the start of the running measurement of each phase
+     */
+    private final long[] startAllocations = new long[PHASES.length];
+    /**
+     * Source of the allocation and garbage collection counts
+     */
+    private volatile MemoryProbe probe = MemoryProbe.NONE;
+
+    /**
+     * Set the source of the allocation and garbage collection counts
+     *
+     * @param probe memory probe, null to stop counting allocations
+     */
+    public void setMemoryProbe(MemoryProbe probe) {
+        this.probe = probe != null ? probe : MemoryProbe.NONE;
+    }
+
+    /**
+     * Start measuring a phase on the calling thread
+     *
+     * @param phase measured phase
+     */
+    public void start(ProfilePhase phase) {
+        int index = phase.ordinal();
+        startAllocations[index] = probe.getAllocations();
+        startNanos[index] = System.nanoTime();
+    }
+
+    /**
+     * Finish measuring a phase and record the sample
+     *
+     * @param phase measured phase
+     */
+    public void stop(ProfilePhase phase) {
+        int index = phase.ordinal();
+        long time = System.nanoTime() - startNanos[index];
+        record(phase, time, probe.getAllocations() - startAllocations[index]);
+    }
+
+    /**
+     * Record a sample measured elsewhere
+     *
+     * @param phase       measured phase
+     * @param time        duration in nanoseconds
+     * @param allocations allocations during the phase
+     */
+    public void record(ProfilePhase phase, long time, long allocations) {
+        int index = phase.ordinal();
+        long count = counts.get(index);
+        int slot = index * CAPACITY + (int) (count & MASK);
+
+        nanos.lazySet(slot, time);
+        this.allocations.lazySet(slot, allocations);
+        totals.lazySet(index, totals.get(index) + time);
+        // Readers only look at samples below the published count
+        counts.lazySet(index, count + 1);
+    }
+
+    /**
+     * Get the number of samples ever recorded for a phase
+     *
+     * @param phase measured phase
+     * @return number of samples
+     */
+    public long getCount(ProfilePhase phase) {
+        return counts.get(phase.ordinal());
+    }
+
+    /**
+     * Get the sum of the durations of all samples ever recorded for a phase
+     *
+     * @param phase measured phase
+     * @return total duration in nanoseconds
+     */
+    public long getTotal(ProfilePhase phase) {
+        return totals.get(phase.ordinal());
+    }
+
+    /**
+     * Get the duration of the latest sample of a phase
+     *
+     * @param phase measured phase
+     * @return duration in nanoseconds, 0 if nothing has been recorded
+     */
+    public long getLatest(ProfilePhase phase) {
+        int index = phase.ordinal();
+        long count = counts.get(index);
+        return count == 0 ? 0 : nanos.get(index * CAPACITY + (int) ((count - 1) & MASK));
+    }
+
+    /**
+     * Get the number of garbage collections reported by the memory probe
+     *
+     * @return number of garbage collections, 0 without a probe
+     */
+    public long getGcCount() {
+        return probe.getGcCount();
+    }
+
+    /**
+     * Calculate statistics of the recent samples of a phase
+     *
+     * @param phase measured phase
+     * @param out   statistics the result is written into
+     * @return the out statistics
+     */
+    public Stats getStats(ProfilePhase phase, Stats out) {
+        int index = phase.ordinal();
+        long count = counts.get(index);
+
+        // The oldest slot may be rewritten right now, so it is left out
+        int n = (int) Math.min(count, CAPACITY - 1);
+        long allocationSum = 0;
+        for (int i = 0; i < n; i++) {
+            int slot = index * CAPACITY + (int) ((count - 1 - i) & MASK);
+            out.sorted[i] = nanos.get(slot);
+            allocationSum += allocations.get(slot);
+        }
+        Arrays.sort(out.sorted, 0, n);
+
+        out.size = n;
+        out.meanAllocations = n == 0 ? 0 : (double) allocationSum / n;
+        return out;
+    }
+
+    /**
+     * Percentiles of the recent samples of one phase
+     * <p>
+     * Reusable, so that the statistics can be read every frame without allocating
+     */
+    public static class Stats {
+        /**
+         * Sorted durations of the samples
+         */
+        private final long[] sorted = new long[CAPACITY];
+        /**
+         * Number of samples
+         */
+        private int size;
+        /**
+         * Mean allocations per sample
+         */
+        private double meanAllocations;
+
+        /**
+         * Get the number of samples the statistics were calculated from
+         *
+         * @return number of samples
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Get the duration below which given fraction of the samples fall (nearest rank)
+         *
+         * @param fraction fraction of the samples between 0 and 1, 0.95 for p95
+         * @return duration in nanoseconds, 0 if there are no samples
+         */
+        public long getPercentile(double fraction) {
+            if (size == 0) return 0;
+
+            int rank = (int) Math.ceil(fraction * size);
+            return sorted[Math.max(0, Math.min(size - 1, rank - 1))];
+        }
+
+        /**
+         * Get the median duration
+         *
+         * @return p50 in nanoseconds
+         */
+        public long getP50() {
+            return getPercentile(0.50);
+        }
+
+        /**
+         * Get the 95th percentile of the durations
+         *
+         * @return p95 in nanoseconds
+         */
+        public long getP95() {
+            return getPercentile(0.95);
+        }
+
+        /**
+         * Get the 99th percentile of the durations
+         *
+         * @return p99 in nanoseconds
+         */
+        public long getP99() {
+            return getPercentile(0.99);
+        }
+
+        /**
+         * Get the longest duration
+         *
+         * @return maximum in nanoseconds, 0 if there are no samples
+         */
+        public long getMax() {
+            return size == 0 ? 0 : sorted[size - 1];
+        }
+
+        /**
+         * Get the mean allocations per sample
+         *
+         * @return mean allocations, in the unit of the memory probe
+         */
+        public double getMeanAllocations() {
+            return meanAllocations;
+        }
+    }
+
+    /**
+     * Platform specific source of allocation and garbage collection counts
+     */
+    public interface MemoryProbe {
+        /**
+         * Probe reporting no allocations and no garbage collections
+         */
+        MemoryProbe NONE = new MemoryProbe() {
+            @Override
+            public long getAllocations() {
+                return 0;
+            }
+
+            @Override
+            public long getGcCount() {
+                return 0;
+            }
+        };
+
+        /**
+         * Get the allocations of the calling thread so far
+         *
+         * @return allocated objects or bytes, depending on the platform
+         */
+        long getAllocations();
+
+        /**
+         * Get the number of garbage collections so far
+         *
+         * @return number of garbage collections
+         */
+        long getGcCount();
+    }
+}
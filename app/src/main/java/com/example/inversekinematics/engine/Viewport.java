@@ -0,0 +1,112 @@
+package com.example.inversekinematics.engine;
+
+/**
+ * Axis-aligned rectangle of the world that is currently visible
+ * <p>
+ * Used as the camera of the game, to skip drawing and to lower simulation fidelity of objects
+ * nobody can see
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class Viewport {
+    /**
+     * Left edge of the visible area
+     */
+    private double left;
+    /**
+     * Top edge of the visible area
+     */
+    private double top;
+    /**
+     * Right edge of the visible area
+     */
+    private double right;
+    /**
+     * Bottom edge of the visible area
+     */
+    private double bottom;
+
+    /**
+     * Set the visible area
+     *
+     * @param left   left edge
+     * @param top    top edge
+     * @param right  right edge
+     * @param bottom bottom edge
+     * @return this Viewport
+     */
+    public Viewport set(double left, double top, double right, double bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        return this;
+    }
+
+    /**
+     * Check whether a point lies within the visible area extended by a margin on every side
+     *
+     * @param x      x coordinate
+     * @param y      y coordinate
+     * @param margin extension of the visible area, usually the radius of the tested object
+     * @return True if the point is visible
+     */
+    public boolean contains(double x, double y, double margin) {
+        return x >= left - margin && x <= right + margin && y >= top - margin && y <= bottom + margin;
+    }
+
+    /**
+     * Get the left edge of the visible area
+     *
+     * @return left edge
+     */
+    public double getLeft() {
+        return left;
+    }
+
+    /**
+     * Get the top edge of the visible area
+     *
+     * @return top edge
+     */
+    public double getTop() {
+        return top;
+    }
+
+    /**
+     * Get the right edge of the visible area
+     *
+     * @return right edge
+     */
+    public double getRight() {
+        return right;
+    }
+
+    /**
+     * Get the bottom edge of the visible area
+     *
+     * @return bottom edge
+     */
+    public double getBottom() {
+        return bottom;
+    }
+
+    /**
+     * Get the width of the visible area
+     *
+     * @return width
+     */
+    public double getWidth() {
+        return right - left;
+    }
+
+    /**
+     * Get the height of the visible area
+     *
+     * @return height
+     */
+    public double getHeight() {
+        return bottom - top;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.inversekinematics.engine;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fixed pool of worker threads splitting index ranges into evenly sized chunks
+ * <p>
+ * The calling thread always processes the first chunk itself and then waits for the workers, so
+ * a pool of n threads keeps n - 1 background threads. Chunks are always split the same way for
+ * the same count, the order in which they finish is not defined.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class WorkerPool {
+    /**
+     * Number of threads working on one range, the calling thread included
+     */
+    private final int parallelism;
+    /**
+     * Background threads running all chunks but the first one
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Create a new pool
+     *
+     * @param parallelism number of threads working on one range, at least 2
+     */
+    public WorkerPool(int parallelism) {
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism - 1, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "GameWorker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Run given task over the range [0, count) split into chunks and wait until all are done
+     * <p>
+     * Everything written by the task is visible to the caller once this method returns
+     *
+     * @param count number of indexes
+     * @param task  task processing one chunk
+     */
+    public void forRange(final int count, final RangeTask task) {
+        int chunks = Math.min(parallelism, count);
+        if (chunks <= 1) {
+            task.run(0, count);
+            return;
+        }
+
+        final CountDownLatch done = new CountDownLatch(chunks - 1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            final int from = (int) ((long) count * chunk / chunks);
+            final int to = (int) ((long) count * (chunk + 1) / chunks);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run(from, to);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+
+        try {
+            task.run(0, count / chunks);
+        } finally {
+            // Workers must not touch the game state once the caller continues
+            awaitUninterruptibly(done);
+        }
+
+        if (failure.get() != null) {
+            throw new RuntimeException("Worker failed", failure.get());
+        }
+    }
+
+    /**
+     * Get the number of threads working on one range
+     *
+     * @return number of threads, the calling thread included
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Stop the background threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Wait for the latch, keeping the interrupt for the caller to handle afterwards
+     *
+     * @param latch awaited latch
+     */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Work on a chunk of an index range
+     */
+    public interface RangeTask {
+        /**
+         * Process indexes from the start (inclusive) to the end (exclusive)
+         *
+         * @param from first index
+         * @param to   index after the last one
+         */
+        void run(int from, int to);
+    }
+}
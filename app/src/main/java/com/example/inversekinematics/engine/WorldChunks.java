@@ -0,0 +1,90 @@
+package com.example.inversekinematics.engine;
+
+/**
+ * Division of the world into square chunks used to decide how often objects are simulated
+ * <p>
+ * The distance of a position from the camera is measured in whole chunks: 0 for the chunks
+ * overlapped by the camera, 1 for the ring of chunks around them and so on. Objects close to the
+ * camera are simulated every tick, further ones at a reduced rate and the furthest not at all.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class WorldChunks {
+    /**
+     * Side length of one chunk
+     */
+    private final double chunkSize;
+    /**
+     * First chunk column overlapped by the camera
+     */
+    private int minCol;
+    /**
+     * Last chunk column overlapped by the camera
+     */
+    private int maxCol;
+    /**
+     * First chunk row overlapped by the camera
+     */
+    private int minRow;
+    /**
+     * Last chunk row overlapped by the camera
+     */
+    private int maxRow;
+
+    /**
+     * Create a new chunk division
+     *
+     * @param chunkSize side length of one chunk
+     */
+    public WorldChunks(double chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Move the camera the distances are measured from
+     *
+     * @param camera visible part of the world
+     */
+    public void setCamera(Viewport camera) {
+        minCol = chunk(camera.getLeft());
+        maxCol = chunk(camera.getRight());
+        minRow = chunk(camera.getTop());
+        maxRow = chunk(camera.getBottom());
+    }
+
+    /**
+     * Get the distance of a position from the camera in chunks
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return 0 within the chunks overlapped by the camera, otherwise the number of chunk rings
+     * between the position and the camera
+     */
+    public int getDistance(double x, double y) {
+        int col = chunk(x);
+        int row = chunk(y);
+        int dx = col < minCol ? minCol - col : col > maxCol ? col - maxCol : 0;
+        int dy = row < minRow ? minRow - row : row > maxRow ? row - maxRow : 0;
+        return Math.max(dx, dy);
+    }
+
+    /**
+     * Get the side length of one chunk
+     *
+     * @return chunk size
+     */
+    public double getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Convert a coordinate to a chunk index
+     *
+     * @param value x or y coordinate
+     * @return chunk column or row, may be negative outside of the world
+     */
+    private int chunk(double value) {
+        return (int) Math.floor(value / chunkSize);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.inversekinematics.enums;
+
+/**
+ * Way a snake body follows its head
+ * <p>
+ * Chain moves every segment with inverse kinematics each tick, Trail lays the body on the path
+ * the head has taken and only moves the head and the segment behind it
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public enum BodyModel {
+    Chain,
+    Trail
+}
@@ -0,0 +1,19 @@
+package com.example.inversekinematics.enums;
+
+/**
+ * Simulation fidelity of a snake, lowered with its distance from the camera and the player
+ * <p>
+ * Full moves the whole body every tick, Reduced moves the head every tick and the body now and
+ * then, Path moves only the head and records its path to rebuild the body from later
+ * <p>
+ * The level is chosen together with the update rate of the snake by a single distance-based
+ * policy of the engine, only Path snakes further from the camera are updated at a reduced rate
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public enum DetailLevel {
+    Full,
+    Reduced,
+    Path
+}
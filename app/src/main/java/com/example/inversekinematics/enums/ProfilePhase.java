@@ -0,0 +1,18 @@
+package com.example.inversekinematics.enums;
+
+/**
+ * Measured parts of a game tick and of a displayed frame
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public enum ProfilePhase {
+    Tick,
+    Time,
+    Player,
+    Enemies,
+    Collisions,
+    Cleanup,
+    Draw,
+    Frame
+}
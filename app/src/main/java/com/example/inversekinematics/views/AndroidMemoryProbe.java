@@ -0,0 +1,57 @@
+package com.example.inversekinematics.views;
+
+import android.os.Debug;
+
+import com.example.inversekinematics.engine.TickProfiler;
+
+/**
+ * Memory probe counting allocated objects per thread and garbage collections on the device
+ * <p>
+ * Allocation counting slows down every allocation of the app, so the probe is only installed
+ * while the performance HUD is shown
+ * <p>
+ * Allocations are counted for the calling thread only, so a tick measured on the game thread
+ * leaves out whatever the worker threads allocate while updating the enemies in parallel. The
+ * per-thread counter is deprecated since API 23, but the runtime statistics replacing it are
+ * neither per-thread nor available on the oldest supported devices, and a global count would
+ * mix in the allocations of the render thread.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+@SuppressWarnings("deprecation")
+public class AndroidMemoryProbe implements TickProfiler.MemoryProbe {
+    /**
+     * Create a new probe and start counting allocations
+     */
+    public AndroidMemoryProbe() {
+        Debug.startAllocCounting();
+    }
+
+    /**
+     * Stop counting allocations, the probe reports no new allocations afterwards
+     */
+    public void release() {
+        Debug.stopAllocCounting();
+    }
+
+    /**
+     * Get the objects allocated by the calling thread so far
+     *
+     * @return allocated objects
+     */
+    @Override
+    public long getAllocations() {
+        return Debug.getThreadAllocCount();
+    }
+
+    /**
+     * Get the number of garbage collections of the whole app so far
+     *
+     * @return number of garbage collections
+     */
+    @Override
+    public long getGcCount() {
+        return Debug.getGlobalGcInvocationCount();
+    }
+}
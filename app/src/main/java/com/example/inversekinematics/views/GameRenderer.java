@@ -0,0 +1,256 @@
+package com.example.inversekinematics.views;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import java.util.Arrays;
+
+import com.example.inversekinematics.engine.GameLoop;
+import com.example.inversekinematics.engine.GameSnapshot;
+import com.example.inversekinematics.engine.TickProfiler;
+import com.example.inversekinematics.engine.Viewport;
+import com.example.inversekinematics.enums.ProfilePhase;
+import com.example.inversekinematics.enums.SnakeType;
+
+/**
+ * Draws a game snapshot onto a canvas
+ * <p>
+ * Shared by all game views so that they only differ in how and on which thread they draw.
+ * Circles of the same color and size are batched into a single point buffer and drawn with one
+ * round-capped {@link Canvas#drawPoints} call, so food costs one draw call and every snake body
+ * one more, regardless of their length. The world is drawn through the snapshot's camera and
+ * circles outside of it are skipped, the score and the time stay fixed on the screen.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class GameRenderer {
+    /**
+     * Size of the food
+     */
+    public static final int FOOD_RADIUS = 8;
+    /**
+     * Distance of the time left from the right edge of the screen
+     */
+    private static final int TIME_MARGIN = 30;
+    private Paint mPaint = new Paint();
+    /**
+     * Paint drawing each point of a batch as a filled circle
+     */
+    private final Paint pointPaint = new Paint();
+    /**
+     * Paint outlining the edge of a world larger than the screen
+     */
+    private final Paint borderPaint = new Paint();
+    /**
+     * Reusable batch of circle centers, stored as x, y pairs
+     */
+    private float[] points = new float[256];
+    /**
+     * Visible area of the world
+     */
+    private final Viewport viewport = new Viewport();
+    /**
+     * Profiler the drawing is measured by, null if drawing is not measured
+     */
+    private volatile TickProfiler profiler;
+    /**
+     * Performance overlay, null if it is hidden
+     */
+    private volatile PerformanceHud hud;
+    /**
+     * Time of the previously drawn frame in nanoseconds
+     */
+    private long lastFrameTime;
+
+    /**
+     * Create a new renderer
+     */
+    public GameRenderer() {
+        // Round caps turn points into circles with the stroke width as diameter
+        pointPaint.setStrokeCap(Paint.Cap.ROUND);
+        borderPaint.setStyle(Paint.Style.STROKE);
+        borderPaint.setStrokeWidth(8);
+        borderPaint.setColor(Color.GRAY);
+    }
+
+    /**
+     * Set the profiler measuring the drawing, usually the one of the displayed game
+     *
+     * @param profiler tick profiler, null to stop measuring
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Show or hide the performance overlay, it needs a profiler to be shown
+     *
+     * @param enabled True to show the overlay
+     */
+    public void setHudEnabled(boolean enabled) {
+        hud = enabled ? new PerformanceHud() : null;
+    }
+
+    /**
+     * Display the snapshot and the performance overlay, measuring the frame if there is a
+     * profiler
+     *
+     * @param canvas    game screen
+     * @param snapshot  game state to display
+     * @param frameTime time of the displayed frame in nanoseconds
+     */
+    public void draw(Canvas canvas, GameSnapshot snapshot, long frameTime) {
+        TickProfiler profiler = this.profiler;
+        if (profiler == null) {
+            drawScene(canvas, snapshot, frameTime);
+            return;
+        }
+
+        if (lastFrameTime != 0) {
+            profiler.record(ProfilePhase.Frame, frameTime - lastFrameTime, 0);
+        }
+        lastFrameTime = frameTime;
+
+        profiler.start(ProfilePhase.Draw);
+        drawScene(canvas, snapshot, frameTime);
+        profiler.stop(ProfilePhase.Draw);
+
+        if (hud != null) {
+            hud.draw(canvas, snapshot, profiler);
+        }
+    }
+
+    /**
+     * Display all the game objects of the snapshot
+     *
+     * @param canvas    game screen
+     * @param snapshot  game state to display
+     * @param frameTime time of the displayed frame in nanoseconds
+     */
+    private void drawScene(Canvas canvas, GameSnapshot snapshot, long frameTime) {
+        // Position between the previous and the latest tick
+        float alpha = (float) (frameTime - snapshot.getTime()) / GameLoop.TICK_NANOS;
+        alpha = Math.max(0, Math.min(1, alpha));
+
+        // Camera between the previous and the latest tick
+        float left = snapshot.getCameraLeft(alpha);
+        float top = snapshot.getCameraTop(alpha);
+        viewport.set(left, top, left + canvas.getWidth(), top + canvas.getHeight());
+
+        canvas.save();
+        canvas.translate(-left, -top);
+
+        // Outline the world if it does not fit on the screen
+        if (snapshot.getWorldWidth() > canvas.getWidth() || snapshot.getWorldHeight() > canvas.getHeight()) {
+            canvas.drawRect(0, 0, snapshot.getWorldWidth(), snapshot.getWorldHeight(), borderPaint);
+        }
+
+        // Draw visible food in one batch
+        int foodCount = snapshot.getFoodCount();
+        ensureCapacity(foodCount);
+        int count = 0;
+        for (int i = 0; i < foodCount; i++) {
+            count = addCircle(count, snapshot.getFoodX(i), snapshot.getFoodY(i), FOOD_RADIUS);
+        }
+        drawCircles(canvas, count, Color.RED, FOOD_RADIUS);
+
+        // Draw snakes, the player first, one batch per body
+        for (int s = 0; s < snapshot.getSnakeCount(); s++) {
+            int offset = snapshot.getSnakeOffset(s);
+            int head = offset + snapshot.getSnakeLength(s) - 1;
+            float size = snapshot.getSnakeSize(s);
+
+            ensureCapacity(head - offset);
+            count = 0;
+            for (int i = offset; i < head; i++) {
+                count = addCircle(count, snapshot.getX(i, alpha), snapshot.getY(i, alpha), size);
+            }
+            drawCircles(canvas, count, Color.DKGRAY, size);
+
+            float headX = snapshot.getX(head, alpha);
+            float headY = snapshot.getY(head, alpha);
+            if (viewport.contains(headX, headY, size * 1.05f)) {
+                mPaint.setColor(getHeadColor(snapshot.getSnakeType(s)));
+                canvas.drawCircle(headX, headY, size * 1.05f, mPaint);
+            }
+        }
+
+        canvas.restore();
+
+        // Draw score
+        mPaint.setColor(Color.BLACK);
+        mPaint.setTextSize(75);
+        canvas.drawText("Score: " + snapshot.getScore(), 30, 70, mPaint);
+
+        // Draw time left
+        mPaint.setTextSize(90);
+        mPaint.setTextAlign(Paint.Align.RIGHT);
+        canvas.drawText(String.valueOf(snapshot.getTimeLeft() / 30), canvas.getWidth() - TIME_MARGIN, 80, mPaint);
+        mPaint.setTextAlign(Paint.Align.LEFT);
+    }
+
+    /**
+     * Append a circle to the point buffer if it is visible
+     *
+     * @param count  number of circles already in the buffer
+     * @param x      x coordinate of the center
+     * @param y      y coordinate of the center
+     * @param radius radius of the circle
+     * @return new number of circles in the buffer
+     */
+    private int addCircle(int count, float x, float y, float radius) {
+        if (!viewport.contains(x, y, radius)) {
+            return count;
+        }
+
+        points[2 * count] = x;
+        points[2 * count + 1] = y;
+        return count + 1;
+    }
+
+    /**
+     * Draw the first circles of the point buffer with one draw call
+     *
+     * @param canvas game screen
+     * @param count  number of circles in the buffer
+     * @param color  color of the circles
+     * @param radius radius of the circles
+     */
+    private void drawCircles(Canvas canvas, int count, int color, float radius) {
+        if (count == 0) return;
+
+        pointPaint.setColor(color);
+        pointPaint.setStrokeWidth(radius * 2);
+        canvas.drawPoints(points, 0, count * 2, pointPaint);
+    }
+
+    /**
+     * Make sure the point buffer can hold given number of circles
+     *
+     * @param count number of circles
+     */
+    private void ensureCapacity(int count) {
+        if (points.length < count * 2) {
+            points = Arrays.copyOf(points, count * 4);
+        }
+    }
+
+    /**
+     * Get the color of the snake's head based on its type
+     *
+     * @param type Type of Snake
+     * @return head color
+     */
+    private int getHeadColor(SnakeType type) {
+        if (type == SnakeType.Hybrid) {
+            return Color.YELLOW;
+        } else if (type == SnakeType.Aggressive) {
+            return Color.MAGENTA;
+        } else if (type == SnakeType.Passive) {
+            return Color.GREEN;
+        }
+        return Color.BLUE;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.inversekinematics.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.util.AttributeSet;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.example.inversekinematics.engine.GameLoop;
+
+/**
+ * Displays the current game state on a surface drawn by a dedicated render thread
+ * <p>
+ * Alternative to {@link MainView} that keeps drawing off the UI thread. The render thread locks
+ * the surface canvas, draws the latest snapshot and posts it, which paces it to the display.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class GameSurfaceView extends SurfaceView implements SurfaceHolder.Callback, Runnable, GameView {
+    /**
+     * Milliseconds to wait when the canvas cannot be locked, about one frame
+     */
+    private static final long RETRY_DELAY = 16;
+    /**
+     * Draws the snapshots
+     */
+    private final GameRenderer renderer = new GameRenderer();
+    /**
+     * Source of the game snapshots
+     */
+    private volatile GameLoop gameLoop;
+    /**
+     * Thread drawing onto the surface
+     */
+    private Thread renderThread;
+    /**
+     * True while the surface exists and should be drawn
+     */
+    private volatile boolean running;
+
+    /**
+     * Create a new surface view
+     *
+     * @param context main display
+     * @param attrs
+     */
+    public GameSurfaceView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        getHolder().addCallback(this);
+    }
+
+    /**
+     * Set the game loop whose snapshots are displayed
+     *
+     * @param gameLoop running game loop
+     */
+    @Override
+    public void setGameLoop(GameLoop gameLoop) {
+        this.gameLoop = gameLoop;
+        renderer.setProfiler(gameLoop != null ? gameLoop.getProfiler() : null);
+    }
+
+    /**
+     * Show or hide the performance overlay
+     *
+     * @param enabled True to show the overlay
+     */
+    @Override
+    public void setHudEnabled(boolean enabled) {
+        renderer.setHudEnabled(enabled);
+    }
+
+    /**
+     * Start the render thread once the surface is ready
+     *
+     * @param holder surface holder
+     */
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        running = true;
+        renderThread = new Thread(this, "GameRender");
+        renderThread.start();
+    }
+
+    /**
+     * Nothing to do, the canvas size is taken on every frame
+     */
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+    }
+
+    /**
+     * Stop the render thread before the surface goes away
+     *
+     * @param holder surface holder
+     */
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        running = false;
+        try {
+            renderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        renderThread = null;
+    }
+
+    /**
+     * Render loop, draws the latest snapshot until the surface is destroyed
+     */
+    @Override
+    public void run() {
+        SurfaceHolder holder = getHolder();
+
+        while (running) {
+            Canvas canvas = holder.lockCanvas();
+            if (canvas == null) {
+                // Without a surface there is nothing to draw on, a new thread starts with the next one
+                if (!holder.getSurface().isValid()) break;
+
+                // The surface is not ready yet, try again in a frame instead of spinning
+                try {
+                    Thread.sleep(RETRY_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+
+            try {
+                canvas.drawColor(Color.WHITE);
+
+                GameLoop loop = gameLoop;
+                if (loop != null) {
+                    renderer.draw(canvas, loop.acquireSnapshot(), System.nanoTime());
+                }
+            } finally {
+                // Posting waits for the display, which paces the loop
+                holder.unlockCanvasAndPost(canvas);
+            }
+        }
+    }
+}
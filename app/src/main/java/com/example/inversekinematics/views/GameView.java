@@ -0,0 +1,25 @@
+package com.example.inversekinematics.views;
+
+import com.example.inversekinematics.engine.GameLoop;
+
+/**
+ * View able to display the snapshots published by the game loop
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public interface GameView {
+    /**
+     * Set the game loop whose snapshots are displayed
+     *
+     * @param gameLoop running game loop
+     */
+    void setGameLoop(GameLoop gameLoop);
+
+    /**
+     * Show or hide the performance overlay
+     *
+     * @param enabled True to show the overlay
+     */
+    void setHudEnabled(boolean enabled);
+}
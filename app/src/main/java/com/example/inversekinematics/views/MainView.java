@@ -1,132 +1,117 @@
 package com.example.inversekinematics.views;
 
-import android.app.Activity;
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
 import android.util.AttributeSet;
-import android.util.DisplayMetrics;
+import android.view.Choreographer;
 import android.view.View;
 
-import com.example.inversekinematics.classes.Food;
-import com.example.inversekinematics.classes.Segment;
-import com.example.inversekinematics.classes.Snake;
-import com.example.inversekinematics.classes.Vector;
-import com.example.inversekinematics.engine.GameEngine;
-import com.example.inversekinematics.enums.SnakeType;
-
-import java.util.List;
+import com.example.inversekinematics.engine.GameLoop;
 
 /**
  * Displays the current game state
+ * <p>
+ * Redraws on every display frame and interpolates snake positions between the two latest
+ * simulation ticks published by the {@link GameLoop}
  *
  * @author Pavel Mikulas
  * @version %I%, %G%
  */
-public class MainView extends View {
+public class MainView extends View implements Choreographer.FrameCallback, GameView {
     /**
-     * Size of the food
+     * Draws the snapshots
      */
-    public final int FOOD_RADIUS = 8;
-    private Paint mPaint = new Paint();
+    private final GameRenderer renderer = new GameRenderer();
     /**
-     * Reference to the player snake
+     * Source of the game snapshots
      */
-    private Snake playerSnake;
+    private GameLoop gameLoop;
     /**
-     * Reference to enemy snakes
+     * Time of the current display frame in nanoseconds
      */
-    private List<Snake> enemySnakes;
+    private long frameTime;
     /**
-     * Reference to food
+     * True while the view requests display frames
      */
-    private List<Food> food;
+    private boolean attached;
 
     /**
-     * Create a new view and retrieve srceen size
+     * Create a new view
      *
      * @param context main display
      * @param attrs
      */
     public MainView(Context context, AttributeSet attrs) {
         super(context, attrs);
-
-        DisplayMetrics dm = new DisplayMetrics();
-        ((Activity) getContext()).getWindowManager().getDefaultDisplay().getMetrics(dm);
-        GameEngine.screenSize = new Vector(dm.widthPixels, dm.heightPixels);
     }
 
     /**
-     * Set references to game objects
+     * Set the game loop whose snapshots are displayed
      *
-     * @param snake       reference to the player snake
-     * @param enemySnakes reference to enemy snakes
-     * @param food        reference to food
+     * @param gameLoop running game loop
      */
-    public void setView(Snake snake, List<Snake> enemySnakes, List<Food> food) {
-        this.playerSnake = snake;
-        this.enemySnakes = enemySnakes;
-        this.food = food;
+    @Override
+    public void setGameLoop(GameLoop gameLoop) {
+        this.gameLoop = gameLoop;
+        renderer.setProfiler(gameLoop != null ? gameLoop.getProfiler() : null);
     }
 
     /**
-     * Display all the game objects on the main display
+     * Show or hide the performance overlay
      *
-     * @param canvas game screen
+     * @param enabled True to show the overlay
      */
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-
-        // Draw food
-        if (food != null) {
-            for (Vector apple : food) {
-                mPaint.setColor(Color.RED);
-                canvas.drawCircle((float) apple.getX(), (float) apple.getY(), FOOD_RADIUS, mPaint);
-            }
-        }
+    public void setHudEnabled(boolean enabled) {
+        renderer.setHudEnabled(enabled);
+    }
 
-        // Draw player
-        if (playerSnake != null) {
-            List<Segment> body = playerSnake.getSnake();
-            for (int i = 0; i < body.size() - 1; i++) {
-                mPaint.setColor(Color.DKGRAY);
-                canvas.drawCircle((float) body.get(i).getCenter().getX(), (float) body.get(i).getCenter().getY(), playerSnake.getBodySize(), mPaint);
-            }
+    /**
+     * Start requesting display frames once the view is shown
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        attached = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
 
-            mPaint.setColor(Color.BLUE);
-            canvas.drawCircle((float) body.get(body.size() - 1).getCenter().getX(), (float) body.get(body.size() - 1).getCenter().getY(), playerSnake.getBodySize() * 1.05f, mPaint);
-        }
+    /**
+     * Stop requesting display frames once the view is gone
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        attached = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+        super.onDetachedFromWindow();
+    }
 
-        // Draw enemies
-        if (enemySnakes != null) {
-            for (Snake snake : enemySnakes) {
-                List<Segment> body = snake.getSnake();
-                for (int i = 0; i < body.size() - 1; i++) {
-                    mPaint.setColor(Color.DKGRAY);
-                    canvas.drawCircle((float) body.get(i).getCenter().getX(), (float) body.get(i).getCenter().getY(), snake.getBodySize(), mPaint);
-                }
+    /**
+     * Redraw the view on every display frame
+     *
+     * @param frameTimeNanos time the frame started rendering
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameTime = frameTimeNanos;
+        invalidate();
 
-                if (snake.getType() == SnakeType.Hybrid) {
-                    mPaint.setColor(Color.YELLOW);
-                } else if (snake.getType() == SnakeType.Aggressive) {
-                    mPaint.setColor(Color.MAGENTA);
-                }
-                if (snake.getType() == SnakeType.Passive) {
-                    mPaint.setColor(Color.GREEN);
-                }
-                canvas.drawCircle((float) body.get(body.size() - 1).getCenter().getX(), (float) body.get(body.size() - 1).getCenter().getY(), snake.getBodySize() * 1.05f, mPaint);
-            }
+        if (attached) {
+            Choreographer.getInstance().postFrameCallback(this);
         }
+    }
+
+    /**
+     * Display all the game objects on the main display
+     *
+     * @param canvas game screen
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
 
-        // Draw score
-        mPaint.setColor(Color.BLACK);
-        mPaint.setTextSize(75);
-        canvas.drawText("Score: " + GameEngine.getScore(), 30, 70, mPaint);
+        if (gameLoop == null) return;
 
-        // Draw time left
-        mPaint.setTextSize(90);
-        canvas.drawText(String.valueOf(GameEngine.timeLeft / 30), 955, 80, mPaint);
+        renderer.draw(canvas, gameLoop.acquireSnapshot(), frameTime);
     }
 }
@@ -0,0 +1,138 @@
+package com.example.inversekinematics.views;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import com.example.inversekinematics.engine.GameSnapshot;
+import com.example.inversekinematics.engine.TickProfiler;
+import com.example.inversekinematics.enums.ProfilePhase;
+
+/**
+ * Overlay with frame and tick timings, entity counts and garbage collections
+ * <p>
+ * Timings are shown as p50 / p95 / p99 in milliseconds over the recent samples of the
+ * {@link TickProfiler}. The text is built in a reused buffer, so the overlay itself does not
+ * allocate while drawing.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+class PerformanceHud {
+    /**
+     * Size of the overlay text
+     */
+    private static final float TEXT_SIZE = 32;
+    /**
+     * Distance between two lines of text
+     */
+    private static final float LINE_HEIGHT = 40;
+    /**
+     * Number of lines of text
+     */
+    private static final int LINES = 7;
+    /**
+     * Paint of the overlay text
+     */
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /**
+     * Paint of the overlay background
+     */
+    private final Paint backgroundPaint = new Paint();
+    /**
+     * Reusable buffer of one line of text
+     */
+    private final StringBuilder line = new StringBuilder(64);
+    /**
+     * Reusable statistics of one phase
+     */
+    private final TickProfiler.Stats stats = new TickProfiler.Stats();
+
+    /**
+     * Create a new overlay
+     */
+    PerformanceHud() {
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(TEXT_SIZE);
+        backgroundPaint.setColor(Color.BLACK);
+        backgroundPaint.setAlpha(160);
+    }
+
+    /**
+     * Draw the overlay into the bottom left corner of the canvas
+     *
+     * @param canvas   game screen
+     * @param snapshot displayed game state
+     * @param profiler profiler of the displayed game
+     */
+    void draw(Canvas canvas, GameSnapshot snapshot, TickProfiler profiler) {
+        float top = canvas.getHeight() - LINES * LINE_HEIGHT - 20;
+        canvas.drawRect(0, top, 600, canvas.getHeight(), backgroundPaint);
+
+        float y = top + LINE_HEIGHT;
+        y = drawPhase(canvas, profiler, ProfilePhase.Frame, "frame ", y);
+        y = drawPhase(canvas, profiler, ProfilePhase.Draw, "draw ", y);
+        y = drawPhase(canvas, profiler, ProfilePhase.Tick, "tick ", y);
+        y = drawPhase(canvas, profiler, ProfilePhase.Enemies, "enemies ", y);
+        y = drawPhase(canvas, profiler, ProfilePhase.Collisions, "collisions ", y);
+
+        line.setLength(0);
+        line.append("snakes ").append(snapshot.getSnakeCount())
+                .append("  segments ").append(snapshot.getSegmentCount())
+                .append("  food ").append(snapshot.getFoodCount());
+        y = drawLine(canvas, y);
+
+        profiler.getStats(ProfilePhase.Tick, stats);
+        line.setLength(0);
+        // Allocations of the worker threads are not counted, see AndroidMemoryProbe
+        line.append("gc ").append(profiler.getGcCount())
+                .append("  game thread alloc/tick ").append(Math.round(stats.getMeanAllocations()));
+        drawLine(canvas, y);
+    }
+
+    /**
+     * Draw the percentiles of one phase
+     *
+     * @param canvas   game screen
+     * @param profiler profiler of the displayed game
+     * @param phase    shown phase
+     * @param label    name of the phase
+     * @param y        baseline of the line
+     * @return baseline of the next line
+     */
+    private float drawPhase(Canvas canvas, TickProfiler profiler, ProfilePhase phase, String label, float y) {
+        profiler.getStats(phase, stats);
+
+        line.setLength(0);
+        line.append(label);
+        appendMillis(stats.getP50());
+        line.append(" / ");
+        appendMillis(stats.getP95());
+        line.append(" / ");
+        appendMillis(stats.getP99());
+        line.append(" ms");
+        return drawLine(canvas, y);
+    }
+
+    /**
+     * Draw the line buffer
+     *
+     * @param canvas game screen
+     * @param y      baseline of the line
+     * @return baseline of the next line
+     */
+    private float drawLine(Canvas canvas, float y) {
+        canvas.drawText(line, 0, line.length(), 16, y, textPaint);
+        return y + LINE_HEIGHT;
+    }
+
+    /**
+     * Append a duration in milliseconds with one decimal place
+     *
+     * @param nanos duration in nanoseconds
+     */
+    private void appendMillis(long nanos) {
+        long tenths = nanos / 100_000;
+        line.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
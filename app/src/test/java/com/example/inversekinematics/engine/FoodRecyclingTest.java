@@ -0,0 +1,76 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Food;
+import com.example.inversekinematics.classes.Snake;
+
+import org.junit.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that eaten food returned to the pool is never followed by an enemy at its new position
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class FoodRecyclingTest {
+    /**
+     * Width of the simulated screen
+     */
+    private static final double SCREEN_WIDTH = 1080;
+    /**
+     * Height of the simulated screen
+     */
+    private static final double SCREEN_HEIGHT = 1584;
+
+    /**
+     * In a world much larger than the screen most enemies skip planning, a target they keep from
+     * one tick to the next must stay where it was
+     * <p>
+     * The player cannot die, so every game runs all checked ticks while food is eaten and recycled
+     */
+    @Test
+    public void heldTargetsNeverMove() {
+        int held = 0;
+
+        for (long seed = 1; seed <= 10; seed++) {
+            HeadlessGame game = new HeadlessGame(SCREEN_WIDTH, SCREEN_HEIGHT);
+            game.init(new GameConfig()
+                    .setSeed(seed)
+                    .setEnemyCount(60)
+                    .setWorldSize(SCREEN_WIDTH * 4, SCREEN_HEIGHT * 4)
+                    .setPlayerInvulnerable(true));
+            GameEngine engine = game.getEngine();
+
+            Map<Snake, Food> targets = new IdentityHashMap<>();
+            Map<Snake, double[]> positions = new IdentityHashMap<>();
+            try {
+                while (game.getTick() < 600 && game.run(1) == 1) {
+                    for (Snake snake : engine.getEnemySnakes()) {
+                        Food target = snake.getTarget();
+                        if (target != null && target == targets.get(snake)) {
+                            double[] position = positions.get(snake);
+                            if (position[0] != target.getX() || position[1] != target.getY()) {
+                                fail("Seed " + seed + " tick " + game.getTick() + ": target moved from "
+                                        + position[0] + "," + position[1] + " to " + target.getX() + "," + target.getY());
+                            }
+                            held++;
+                        }
+                        targets.put(snake, target);
+                        positions.put(snake, target == null ? null : new double[]{target.getX(), target.getY()});
+                    }
+                }
+            } finally {
+                engine.shutdown();
+            }
+            assertEquals("Seed " + seed + " ended early", 600, game.getTick());
+        }
+
+        assertTrue("No target was held between ticks", held > 0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Snake;
+import com.example.inversekinematics.enums.BodyModel;
+import com.example.inversekinematics.enums.GameState;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that updating the enemies on several threads plays the same game as a single thread
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class ParallelUpdateTest {
+    /**
+     * Width of the simulated screen
+     */
+    private static final double SCREEN_WIDTH = 1080;
+    /**
+     * Height of the simulated screen
+     */
+    private static final double SCREEN_HEIGHT = 1584;
+
+    /**
+     * Games of both body models in a world of the screen size and in a larger one end the same
+     * way on one and on four threads
+     * <p>
+     * The player cannot die, so the games run their full length through the food limit growth,
+     * the growing snakes and the enemies killed and respawned along the way
+     */
+    @Test
+    public void parallelMatchesSequential() {
+        for (BodyModel model : BodyModel.values()) {
+            for (int screens : new int[]{1, 4}) {
+                for (long seed = 1; seed <= 2; seed++) {
+                    GameConfig config = new GameConfig()
+                            .setSeed(seed)
+                            .setEnemyCount(40)
+                            .setWorldSize(SCREEN_WIDTH * screens, SCREEN_HEIGHT * screens)
+                            .setBodyModel(model)
+                            .setPlayerInvulnerable(true);
+                    String name = model.name() + " " + screens + "x seed " + seed;
+
+                    HeadlessGame sequential = play(config.copy().setParallelism(1));
+                    HeadlessGame parallel = play(config.copy().setParallelism(4));
+                    assertEquals(name + " did not run its length", GameState.TimedOut, sequential.getEngine().getCurrentState());
+                    assertSameGame(name, sequential.getEngine(), parallel.getEngine());
+                }
+            }
+        }
+    }
+
+    /**
+     * Play a game to its end
+     *
+     * @param config parameters of the game
+     * @return finished game
+     */
+    private static HeadlessGame play(GameConfig config) {
+        HeadlessGame game = new HeadlessGame(SCREEN_WIDTH, SCREEN_HEIGHT);
+        try {
+            game.init(config);
+            game.run(Long.MAX_VALUE);
+        } finally {
+            game.getEngine().shutdown();
+        }
+        return game;
+    }
+
+    /**
+     * Compare the final state of two games
+     *
+     * @param name     name of the compared games
+     * @param expected engine of the sequential game
+     * @param actual   engine of the parallel game
+     */
+    private static void assertSameGame(String name, GameEngine expected, GameEngine actual) {
+        assertEquals(name + " tick", expected.getTick(), actual.getTick());
+        assertEquals(name + " score", expected.getScore(), actual.getScore());
+        assertEquals(name + " state", expected.getCurrentState(), actual.getCurrentState());
+        assertSameHead(name + " player", expected.getPlayerSnake(), actual.getPlayerSnake());
+
+        List<Snake> expectedEnemies = expected.getEnemySnakes();
+        List<Snake> actualEnemies = actual.getEnemySnakes();
+        assertEquals(name + " enemies", expectedEnemies.size(), actualEnemies.size());
+        for (int i = 0; i < expectedEnemies.size(); i++) {
+            assertSameHead(name + " enemy " + i, expectedEnemies.get(i), actualEnemies.get(i));
+        }
+    }
+
+    /**
+     * Compare the head positions of two snakes
+     *
+     * @param name     name of the compared snakes
+     * @param expected snake of the sequential game
+     * @param actual   snake of the parallel game
+     */
+    private static void assertSameHead(String name, Snake expected, Snake actual) {
+        assertEquals(name + " x", expected.getHeadX(), actual.getHeadX(), 0);
+        assertEquals(name + " y", expected.getHeadY(), actual.getHeadY(), 0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.BodyModel;
+import com.example.inversekinematics.enums.GameState;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a recorded game played again with {@link Replay} ends in the recorded state
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class ReplayTest {
+    /**
+     * Width of the simulated screen
+     */
+    private static final double SCREEN_WIDTH = 1080;
+    /**
+     * Height of the simulated screen
+     */
+    private static final double SCREEN_HEIGHT = 1584;
+
+    /**
+     * Whole recorded sessions of both body models replay to the same tick, score and state
+     * digest on one and on more threads
+     * <p>
+     * The player cannot die, so the sessions run their full length with input at irregular ticks
+     */
+    @Test
+    public void replayMatchesRecording() throws IOException {
+        for (BodyModel model : BodyModel.values()) {
+            GameConfig config = new GameConfig()
+                    .setSeed(3)
+                    .setEnemyCount(30)
+                    .setWorldSize(SCREEN_WIDTH * 3, SCREEN_HEIGHT * 3)
+                    .setBodyModel(model)
+                    .setPlayerInvulnerable(true);
+            byte[] recording = record(config, Long.MAX_VALUE);
+            Replay replay = new Replay(recording);
+
+            assertEquals(model.name(), config.getSeed(), replay.getConfig().getSeed());
+            assertEquals(model.name() + " session ended early", config.getGameLength(), replay.getFinalTick());
+            assertTrue(model.name() + " recorded too little input", replay.getInputCount() > 100);
+            for (int parallelism : new int[]{1, 4}) {
+                HeadlessGame game = replay.play(parallelism);
+                GameEngine engine = game.getEngine();
+
+                String name = model.name() + " on " + parallelism + " threads";
+                assertEquals(name, replay.getFinalTick(), engine.getTick());
+                assertEquals(name, replay.getFinalScore(), engine.getScore());
+                assertEquals(name, replay.getFinalDigest(), engine.getStateDigest());
+                assertTrue(name, replay.matches(game));
+            }
+        }
+    }
+
+    /**
+     * A replay that reaches the recorded tick and score in a different state does not match
+     */
+    @Test
+    public void digestDetectsDifferentState() throws IOException {
+        byte[] recording = record(new GameConfig().setSeed(5), 200);
+
+        // The digest is the last field of the recording
+        recording[recording.length - 1] ^= 1;
+        Replay replay = new Replay(recording);
+        HeadlessGame game = replay.play(1);
+
+        assertEquals(replay.getFinalTick(), game.getEngine().getTick());
+        assertEquals(replay.getFinalScore(), game.getEngine().getScore());
+        assertFalse(replay.matches(game));
+    }
+
+    /**
+     * Play a recorded game
+     * <p>
+     * Touches come at random ticks like those of a player, so the recording holds input that
+     * cannot be derived from the tick. They aim around the center of the world to stay in bounds.
+     *
+     * @param config   parameters of the game
+     * @param maxTicks maximum number of played ticks
+     * @return finished recording
+     * @throws IOException never, the recording is written to memory
+     */
+    private static byte[] record(GameConfig config, long maxTicks) throws IOException {
+        GameEngine engine = new GameEngine(SCREEN_WIDTH, SCREEN_HEIGHT);
+        InputRecorder recorder = new InputRecorder();
+        engine.setRecorder(recorder);
+        Random touches = new Random(config.getSeed());
+
+        try {
+            engine.init(config);
+            while (engine.getTick() < maxTicks && engine.getCurrentState() == GameState.Running) {
+                if (touches.nextInt(5) == 0) {
+                    double radius = Math.min(engine.getWorldWidth(), engine.getWorldHeight()) / 4;
+                    engine.calculateFollowPoint(
+                            engine.getWorldWidth() / 2 + (touches.nextDouble() * 2 - 1) * radius,
+                            engine.getWorldHeight() / 2 + (touches.nextDouble() * 2 - 1) * radius);
+                }
+                engine.update();
+            }
+            recorder.finish(engine);
+        } finally {
+            engine.shutdown();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recorder.writeTo(bytes);
+        return bytes.toByteArray();
+    }
+}
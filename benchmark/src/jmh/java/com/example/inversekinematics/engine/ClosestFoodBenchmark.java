@@ -0,0 +1,56 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Food;
+import com.example.inversekinematics.classes.Snake;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the nearest food search done by the enemy AI
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClosestFoodBenchmark {
+    @Param({"25", "1000", "5000"})
+    public int food;
+
+    @Param({"true", "false"})
+    public boolean unsafe;
+
+    /**
+     * Seed of the game, so that all forks measure the same workload
+     */
+    private static final long SEED = 1;
+
+    private GameEngine engine;
+
+    @Setup
+    public void setUp() {
+        HeadlessGame game = new HeadlessGame(1080, 1584);
+        game.init(new GameConfig().setSeed(SEED).setEnemyCount(20).setFoodLimit(food));
+        game.step();
+        engine = game.getEngine();
+    }
+
+    @Benchmark
+    public void closestFood(Blackhole blackhole) {
+        for (Snake snake : engine.getEnemySnakes()) {
+            Food closest = engine.getClosestFood(snake, unsafe);
+            blackhole.consume(closest);
+        }
+    }
+}
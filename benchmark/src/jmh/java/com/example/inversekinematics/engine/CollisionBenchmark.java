@@ -0,0 +1,63 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.Snake;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking every enemy against the player in both directions
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+    @Param({"5", "50", "200"})
+    public int enemies;
+
+    @Param({"10", "100"})
+    public int segments;
+
+    /**
+     * Seed of the game, so that all forks measure the same workload
+     */
+    private static final long SEED = 1;
+
+    private GameEngine engine;
+
+    @Setup
+    public void setUp() {
+        HeadlessGame game = new HeadlessGame(1080, 1584);
+        game.init(new GameConfig().setSeed(SEED).setEnemyCount(enemies).setSnakeLength(segments));
+
+        // Let the enemies spread out and fill the segment index
+        for (int i = 0; i < 20; i++) {
+            game.step();
+        }
+        engine = game.getEngine();
+    }
+
+    @Benchmark
+    public int collisions() {
+        Snake player = engine.getPlayerSnake();
+        int collisions = 0;
+
+        for (Snake snake : engine.getEnemySnakes()) {
+            if (engine.collision(snake, player)) collisions++;
+            if (engine.collision(player, snake)) collisions++;
+        }
+
+        return collisions;
+    }
+}
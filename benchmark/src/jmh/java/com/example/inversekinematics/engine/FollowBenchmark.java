@@ -0,0 +1,44 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.classes.SnakeBody;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of moving a whole snake body with the inverse kinematics follow chain
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FollowBenchmark {
+    @Param({"10", "100", "1000"})
+    public int segments;
+
+    private SnakeBody body;
+    private double angle;
+
+    @Setup
+    public void setUp() {
+        body = new SnakeBody(0, 0, 16, segments);
+    }
+
+    @Benchmark
+    public double follow() {
+        // Keep turning so that every segment has to move
+        angle += 0.05;
+        body.moveTo(500 + 300 * Math.cos(angle), 500 + 300 * Math.sin(angle));
+        return body.getCenterX(0);
+    }
+}
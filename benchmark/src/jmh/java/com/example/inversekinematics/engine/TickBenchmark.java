@@ -0,0 +1,87 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.BodyModel;
+import com.example.inversekinematics.enums.GameState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of one full game tick for varying numbers of snakes, segments and food
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickBenchmark {
+    /**
+     * Seed of every game, so that all forks and iterations measure the same workload
+     */
+    private static final long SEED = 1;
+
+    @Param({"5", "50", "200"})
+    public int enemies;
+
+    @Param({"10", "50"})
+    public int segments;
+
+    @Param({"25", "1000"})
+    public int food;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    @Param({"Chain", "Trail"})
+    public BodyModel bodyModel;
+
+    private HeadlessGame game;
+
+    private GameConfig config;
+
+    /**
+     * Start a fresh game for every iteration
+     * <p>
+     * The autopilot does not avoid enemies, so the player is invulnerable to keep the game going.
+     * Games have the regular length and start over once they end, so the food and the snakes grow
+     * the same way in every iteration instead of drifting with the iteration time.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        config = new GameConfig()
+                .setSeed(SEED)
+                .setEnemyCount(enemies)
+                .setSnakeLength(segments)
+                .setFoodLimit(food)
+                .setParallelism(parallelism)
+                .setBodyModel(bodyModel)
+                .setPlayerInvulnerable(true);
+        game = new HeadlessGame(1080, 1584);
+        game.init(config);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        game.getEngine().shutdown();
+    }
+
+    @Benchmark
+    public void tick() {
+        // Start a finished game over, so that every sample times a running game
+        if (game.getEngine().getCurrentState() != GameState.Running) {
+            game.init(config);
+        }
+        game.step();
+    }
+}
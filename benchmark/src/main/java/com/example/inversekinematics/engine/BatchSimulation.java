@@ -0,0 +1,228 @@
+package com.example.inversekinematics.engine;
+
+import com.example.inversekinematics.enums.BodyModel;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Command line entry point of the {@link BatchRunner}
+ * <p>
+ * Run with {@code ./gradlew :benchmark:simulate --args='--games 1000 --mix 1:2:1 --out games.csv'},
+ * the report is printed to the standard output unless a file is given. Games recorded with
+ * {@code --record} can be checked one by one with {@code --replay}.
+ *
+ * @author Pavel Mikulas
+ * @version %I%, %G%
+ */
+public class BatchSimulation {
+    /**
+     * Description of the accepted options
+     */
+    private static final String USAGE = "Options:\n"
+            + "  --games N        number of games (100)\n"
+            + "  --seed S         seed of the first game (1)\n"
+            + "  --threads N      games played at the same time (processor count)\n"
+            + "  --enemies N      enemy snakes per game, at least 0 (5)\n"
+            + "  --mix A:P:H      weights of Aggressive, Passive and Hybrid enemies (1:1:1)\n"
+            + "  --food N         food limit, at least 2 (25)\n"
+            + "  --length N       game length in ticks (1800)\n"
+            + "  --snake N        segments of a new snake, at least 1 (10)\n"
+            + "  --world WxH      world size, 0x0 for the screen size (0x0)\n"
+            + "  --body MODEL     Chain or Trail (Chain)\n"
+            + "  --player MODE    Invulnerable plays every game to its length, Mortal lets enemies kill\n"
+            + "                   the autopilot (Invulnerable)\n"
+            + "  --out FILE       write the report to a file\n"
+            + "  --record DIR     write the recording of every game to DIR/game-SEED.rec\n"
+            + "  --replay FILE    play a recording on --threads enemy threads and check its end state\n";
+
+    /**
+     * Parse the options, play the games and write the report
+     *
+     * @param args command line options
+     * @throws Exception if the games are interrupted or a recording or the report cannot be read or written
+     */
+    public static void main(String[] args) throws Exception {
+        // The autopilot does not avoid enemies, a mortal player would end most games early
+        GameConfig config = new GameConfig().setPlayerInvulnerable(true);
+        int games = 100;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = null;
+        String record = null;
+        String replay = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    System.out.print(USAGE);
+                    return;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value of " + option);
+                }
+                String value = args[++i];
+
+                switch (option) {
+                    case "--games":
+                        games = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--enemies":
+                        config.setEnemyCount(Integer.parseInt(value));
+                        break;
+                    case "--mix":
+                        String[] weights = value.split(":");
+                        if (weights.length != 3) {
+                            throw new IllegalArgumentException("Bot mix must be A:P:H");
+                        }
+                        config.setBotMix(Integer.parseInt(weights[0]), Integer.parseInt(weights[1]), Integer.parseInt(weights[2]));
+                        break;
+                    case "--food":
+                        config.setFoodLimit(Integer.parseInt(value));
+                        break;
+                    case "--length":
+                        config.setGameLength(Integer.parseInt(value));
+                        break;
+                    case "--snake":
+                        config.setSnakeLength(Integer.parseInt(value));
+                        break;
+                    case "--world":
+                        String[] size = value.split("x");
+                        if (size.length != 2) {
+                            throw new IllegalArgumentException("World size must be WxH");
+                        }
+                        config.setWorldSize(Double.parseDouble(size[0]), Double.parseDouble(size[1]));
+                        break;
+                    case "--body":
+                        config.setBodyModel(BodyModel.valueOf(value));
+                        break;
+                    case "--player":
+                        if (value.equals("Invulnerable") || value.equals("Mortal")) {
+                            config.setPlayerInvulnerable(value.equals("Invulnerable"));
+                        } else {
+                            throw new IllegalArgumentException("Player must be Invulnerable or Mortal");
+                        }
+                        break;
+                    case "--out":
+                        out = value;
+                        break;
+                    case "--record":
+                        record = value;
+                        break;
+                    case "--replay":
+                        replay = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        if (replay != null) {
+            System.exit(replay(replay, threads) ? 0 : 1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<BatchRunner.Result> results = new BatchRunner(config)
+                .setGames(games)
+                .setFirstSeed(seed)
+                .setThreads(threads)
+                .setRecording(record != null)
+                .run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (record != null) {
+            writeRecordings(results, new File(record));
+        }
+
+        if (out == null) {
+            BatchRunner.writeCsv(results, System.out);
+            System.out.flush();
+        } else {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(out), StandardCharsets.UTF_8)) {
+                BatchRunner.writeCsv(results, writer);
+            }
+        }
+        System.err.printf("%d games on %d threads in %.1f s%n", results.size(), threads, seconds);
+
+        int failed = 0;
+        for (BatchRunner.Result result : results) {
+            if (result.isFailed()) {
+                System.err.println("Game " + result.getSeed() + " failed: " + result.getFailure());
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Write the recording of every finished game into a directory
+     *
+     * @param results   results of the recorded games
+     * @param directory target directory, created if missing
+     * @throws IOException if a recording cannot be written
+     */
+    private static void writeRecordings(List<BatchRunner.Result> results, File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        for (BatchRunner.Result result : results) {
+            if (result.getRecording() == null) continue;
+
+            try (OutputStream stream = new FileOutputStream(new File(directory, "game-" + result.getSeed() + ".rec"))) {
+                stream.write(result.getRecording());
+            }
+        }
+    }
+
+    /**
+     * Play a recording and compare the end of the replay with the recorded one
+     *
+     * @param file        recording file
+     * @param parallelism number of threads updating the enemies
+     * @return True if the replay ended in the recorded state
+     * @throws IOException if the recording cannot be read
+     */
+    private static boolean replay(String file, int parallelism) throws IOException {
+        Replay replay;
+        try (InputStream stream = new FileInputStream(file)) {
+            replay = new Replay(stream);
+        }
+
+        long start = System.nanoTime();
+        HeadlessGame game = replay.play(parallelism);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        GameEngine engine = game.getEngine();
+        boolean matches = replay.matches(game);
+        System.out.printf("recorded: tick %d score %d digest %016x%n",
+                replay.getFinalTick(), replay.getFinalScore(), replay.getFinalDigest());
+        System.out.printf("replayed: tick %d score %d digest %016x%n",
+                engine.getTick(), engine.getScore(), engine.getStateDigest());
+        System.out.printf("%s in %.1f s on %d threads%n", matches ? "match" : "MISMATCH", seconds, parallelism);
+        return matches;
+    }
+}